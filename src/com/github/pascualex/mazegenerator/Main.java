@@ -3,17 +3,24 @@ package com.github.pascualex.mazegenerator;
 import com.github.pascualex.mazegenerator.maze.Maze;
 
 /**
- * This class is the one that contains the main method and creates the maze app.
+ * This class is the one that contains the main method and creates the maze app, or runs the
+ * command line interface if there are arguments.
  * @author Alejandro Pascual
  */
 public class Main {
     
     /**
-     * The main method creates the maze, the view and the controller of the app.
-     * @param args The arguments of the program. They will be ignored.
+     * The main method creates the maze, the view and the controller of the app. If there are
+     * arguments, it runs the command line interface with them instead, without opening any window.
+     * @param args The arguments of the program, the options of the command line interface.
      */
     @SuppressWarnings("unused")
     public static void main(String[] args) {
+        if (args.length > 0) {
+            MazeCli.main(args);
+            return;
+        }
+
         Maze maze = new Maze();
         MazeAppView mazeAppView = new MazeAppView(maze);        
         MazeAppController mazeAppController = new MazeAppController(maze, mazeAppView);
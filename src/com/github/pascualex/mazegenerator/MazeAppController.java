@@ -1,9 +1,13 @@
 package com.github.pascualex.mazegenerator;
 
 import com.github.pascualex.mazegenerator.maze.Maze;
+import com.github.pascualex.mazegenerator.maze.MazeCommand;
 import com.github.pascualex.mazegenerator.maze.MazeController;
+import com.github.pascualex.mazegenerator.maze.algorithms.AlgorithmType;
+import com.github.pascualex.mazegenerator.metrics.MazeMetrics;
 
 import javax.swing.JFrame;
+import javax.swing.Timer;
 
 import java.awt.Point;
 import java.awt.event.ActionEvent;
@@ -11,13 +15,16 @@ import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionAdapter;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
 
 /**
  * This class defines the controller of the maze app.
  * @author Alejandro Pascual
  */
 public class MazeAppController {
-    
+    private static final double ZOOM_FACTOR = 1.25;
+
     /**
      * Instantiates a maze app controller, given its maze and maze app view.
      * @param maze The maze of the maze app.
@@ -29,6 +36,19 @@ public class MazeAppController {
         Thread mazeThread = new Thread(mazeController);
         mazeThread.start();
 
+        // Registers the metrics of the maze thread and records the paints of the maze view
+        MazeMetrics metrics = mazeController.getMetrics();
+        metrics.register();
+        mazeAppView.mazeView.setMetrics(metrics);
+
+        // Sets up the timer that refreshes the metrics while they are shown
+        Timer metricsTimer = new Timer(250, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                mazeAppView.metricsLabel.setText(formatMetrics(metrics));
+            }
+        });
+
         // Sets up the draggable bar of the maze app
         Point click = new Point();
         mazeAppView.addMouseListener(new MouseAdapter() {
@@ -54,6 +74,33 @@ public class MazeAppController {
             }
         });
 
+        // Sets up the zoom of the maze view with the mouse wheel, around the cursor
+        mazeAppView.mazeView.addMouseWheelListener(new MouseWheelListener() {
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                double factor = Math.pow(ZOOM_FACTOR, -e.getPreciseWheelRotation());
+                mazeAppView.mazeView.zoomView(factor, e.getX(), e.getY());
+                mazeController.send(MazeCommand.moveView());
+            }
+        });
+
+        // Sets up the pan of the maze view by dragging it
+        Point drag = new Point();
+        mazeAppView.mazeView.addMouseListener(new MouseAdapter() {
+            public void mousePressed(MouseEvent e) {
+                drag.x = e.getX();
+                drag.y = e.getY();
+            }
+        });
+        mazeAppView.mazeView.addMouseMotionListener(new MouseMotionAdapter() {
+            public void mouseDragged(MouseEvent e) {
+                mazeAppView.mazeView.panView(e.getX()-drag.x, e.getY()-drag.y);
+                mazeController.send(MazeCommand.moveView());
+                drag.x = e.getX();
+                drag.y = e.getY();
+            }
+        });
+
         // Sets up the action listener of the minimize button of the maze app
         mazeAppView.minimizeButton.addActionListener(new ActionListener() {
             @Override
@@ -67,83 +114,105 @@ public class MazeAppController {
             @Override
             public void actionPerformed(ActionEvent e) {
                 mazeAppView.setVisible(false);
+                metricsTimer.stop();
 
                 // Indicates that the maze thread must end
-                mazeController.finish();
-                mazeThread.interrupt();
+                mazeController.send(MazeCommand.finish());
 
                 mazeAppView.dispose();
             }
         });
 
+        // Sets up the action listener of the metrics input of the maze app
+        mazeAppView.metricsInput.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                // Shows the metrics and refreshes them periodically, or hides them
+                if (mazeAppView.metricsInput.isSelected()) {
+                    mazeAppView.metricsLabel.setText(formatMetrics(metrics));
+                    mazeAppView.metricsLabel.setVisible(true);
+                    metricsTimer.start();
+                } else {
+                    metricsTimer.stop();
+                    mazeAppView.metricsLabel.setVisible(false);
+                }
+            }
+        });
+
         // Sets up the action listener of the generate button of the maze app
         mazeAppView.generateButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                // Obtains the tile side from its input
-                String tileSideText = mazeAppView.tileSideInput.getText();
-                int tileSide;
+                // Obtains the maze side from its input
+                String mazeSideText = mazeAppView.mazeSideInput.getText();
+                int mazeSide;
                 try {
-                    tileSide = Integer.parseInt(tileSideText);
-                    if (tileSide < MazeAppView.minTileSide || tileSide > MazeAppView.maxTileSide) {
-                        tileSide = -1;
+                    mazeSide = Integer.parseInt(mazeSideText);
+                    if (mazeSide < MazeAppView.minMazeSide || mazeSide > MazeAppView.maxMazeSide) {
+                        mazeSide = -1;
                     }
                 } catch (NumberFormatException ex) {
-                    tileSide = -1;
+                    mazeSide = -1;
                 }
 
-                // Obtains the step delay from its input
-                String stepDelayText = mazeAppView.stepDelayInput.getText();
-                int stepDelay;
-                try {
-                    stepDelay = Integer.parseInt(stepDelayText);
-                    if (stepDelay < MazeAppView.minStepDelay 
-                        || stepDelay > MazeAppView.maxStepDelay) {
-                        stepDelay = -1;
-                    }
-                } catch (NumberFormatException ex) {
-                    stepDelay = -1;                        
-                }
-                
-                // If the tile side input is incorrect, it's notified visually
-                if (tileSide == -1) {
-                    mazeAppView.tileSideInput.setForeground(MazeAppView.errorColor);
-                } else {
-                    mazeAppView.tileSideInput.setForeground(MazeAppView.tertiaryColor);
-                }
+                // Obtains the steps per second from its input
+                int stepsPerSecond = getStepsPerSecond(mazeAppView);
 
-                // If the step delay input is incorrect, it's notified visually
-                if (stepDelay == -1) {
-                    mazeAppView.stepDelayInput.setForeground(MazeAppView.errorColor);
+                // If the maze side input is incorrect, it's notified visually
+                if (mazeSide == -1) {
+                    mazeAppView.mazeSideInput.setForeground(MazeAppView.errorColor);
                 } else {
-                    mazeAppView.stepDelayInput.setForeground(MazeAppView.tertiaryColor);
+                    mazeAppView.mazeSideInput.setForeground(MazeAppView.tertiaryColor);
                 }
                 
                 // Checks if some input is incorrect
-                if (tileSide != -1 && stepDelay != -1) {
+                if (mazeSide != -1 && stepsPerSecond != -1) {
                     // Restarts the maze with the new parameters
-                    mazeController.setTileSide(tileSide);
-                    mazeController.setStepDelay(stepDelay);
-                    mazeController.restart();
-                    mazeThread.interrupt();
+                    AlgorithmType algorithmType =
+                        (AlgorithmType) mazeAppView.algorithmInput.getSelectedItem();
+                    mazeController.send(
+                        MazeCommand.restart(mazeSide, mazeSide, stepsPerSecond, algorithmType));
+                    mazeAppView.pauseButton.setText(MazeAppView.pauseText);
                 } else {
                     // Clears the maze
-                    if (mazeController.clear()) {
-                        mazeThread.interrupt();
-                    }
+                    mazeController.send(MazeCommand.clear());
                 }  
             }
         });
 
+        // Sets up the action listener of the pause button of the maze app
+        mazeAppView.pauseButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                // Pauses or resumes the maze, and shows the opposite action in the button
+                if (mazeAppView.pauseButton.getText().equals(MazeAppView.pauseText)) {
+                    mazeController.send(MazeCommand.pause());
+                    mazeAppView.pauseButton.setText(MazeAppView.resumeText);
+                } else {
+                    mazeController.send(MazeCommand.resume());
+                    mazeAppView.pauseButton.setText(MazeAppView.pauseText);
+                }
+            }
+        });
+
+        // Sets up the action listener of the steps per second input of the maze app
+        mazeAppView.stepsPerSecondInput.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                // Changes the speed of the maze while it's running, if the input is correct
+                int stepsPerSecond = getStepsPerSecond(mazeAppView);
+                if (stepsPerSecond != -1) {
+                    mazeController.send(MazeCommand.setSpeed(stepsPerSecond));
+                }
+            }
+        });
+
         // Sets up the action listener of the solve button of the maze app
         mazeAppView.solveButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {   
-                // Checks if the maze controller accepts the solve request             
-                if (mazeController.solve()) {
-                    // Notifies the maze thread
-                    mazeThread.interrupt();
-                }
+                // Requests the maze thread to solve the maze, which it ignores if it isn't finished
+                mazeController.send(MazeCommand.solve());
             }
         });
 
@@ -151,12 +220,52 @@ public class MazeAppController {
         mazeAppView.cancelButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                // Checks if the maze controller accepts the clear request 
-                if (mazeController.clear()) {
-                    // Interrupts the maze thread
-                    mazeThread.interrupt();
-                }
+                // Requests the maze thread to clear the maze
+                mazeController.send(MazeCommand.clear());
             }
         });
     }
+
+    /**
+     * Returns the steps per second of the steps per second input, and notifies visually if the
+     * input is incorrect.
+     * @param mazeAppView The maze app view with the input.
+     * @return The steps per second, or -1 if the input is incorrect.
+     */
+    private static int getStepsPerSecond(MazeAppView mazeAppView) {
+        // Obtains the steps per second from its input
+        String stepsPerSecondText = mazeAppView.stepsPerSecondInput.getText();
+        int stepsPerSecond;
+        try {
+            stepsPerSecond = Integer.parseInt(stepsPerSecondText);
+            if (stepsPerSecond < MazeAppView.minStepsPerSecond
+                || stepsPerSecond > MazeAppView.maxStepsPerSecond) {
+                stepsPerSecond = -1;
+            }
+        } catch (NumberFormatException ex) {
+            stepsPerSecond = -1;
+        }
+
+        // If the steps per second input is incorrect, it's notified visually
+        if (stepsPerSecond == -1) {
+            mazeAppView.stepsPerSecondInput.setForeground(MazeAppView.errorColor);
+        } else {
+            mazeAppView.stepsPerSecondInput.setForeground(MazeAppView.tertiaryColor);
+        }
+        return stepsPerSecond;
+    }
+
+    /**
+     * Returns the text of the metrics label, with the current value of the metrics.
+     * @param metrics The metrics of the maze thread.
+     * @return The text of the metrics label.
+     */
+    private static String formatMetrics(MazeMetrics metrics) {
+        return String.format("<html>Steps/s: %.0f &nbsp; Depth: %d<br>"
+                             + "Tiles: %d &nbsp; Dropped frames: %d<br>"
+                             + "Paint: %.2f ms &nbsp; Alloc: %.1f MB/s</html>",
+                             metrics.getStepsPerSecond(), metrics.getDepth(),
+                             metrics.getTilesGenerated(), metrics.getFramesDropped(),
+                             metrics.getLastPaintTime()/1e6, metrics.getAllocationRate()/1e6);
+    }
 }
\ No newline at end of file
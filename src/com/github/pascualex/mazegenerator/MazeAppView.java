@@ -2,6 +2,7 @@ package com.github.pascualex.mazegenerator;
 
 import com.github.pascualex.mazegenerator.maze.Maze;
 import com.github.pascualex.mazegenerator.maze.MazeView;
+import com.github.pascualex.mazegenerator.maze.algorithms.AlgorithmType;
 import com.github.pascualex.mazegenerator.swing.JCustomButton;
 
 import javax.swing.*;
@@ -25,22 +26,30 @@ public class MazeAppView extends JFrame {
     public static final Color focusColor = new Color(220, 80, 240);
     public static final Color errorColor = new Color(200, 50, 50);
 
-    public static final int minTileSide = 1;
-    public static final int maxTileSide = 250;
-    public static final int minStepDelay = 0;
-    public static final int maxStepDelay = 1000;
+    public static final int minMazeSide = 1;
+    public static final int maxMazeSide = 10000;
+    public static final int minStepsPerSecond = 0;
+    public static final int maxStepsPerSecond = 1000000;
+
+    public static final String pauseText = "\u275A\u275A";
+    public static final String resumeText = "\u25B6";
 
     private JPanel mazePanel;
     public MazeView mazeView;
 
     private JPanel sidePanel;
-    private JLabel tileSideLabel;
-    public JTextField tileSideInput;
-    private JLabel stepDelayLabel;
-    public JTextField stepDelayInput;
+    private JLabel mazeSideLabel;
+    public JTextField mazeSideInput;
+    private JLabel stepsPerSecondLabel;
+    public JTextField stepsPerSecondInput;
+    private JLabel algorithmLabel;
+    public JComboBox<AlgorithmType> algorithmInput;
+    public JCheckBox metricsInput;
+    public JLabel metricsLabel;
     public JCustomButton minimizeButton;
     public JCustomButton closeButton;    
     public JCustomButton generateButton;
+    public JCustomButton pauseButton;
     public JCustomButton solveButton;
     public JCustomButton cancelButton;
 
@@ -105,49 +114,94 @@ public class MazeAppView extends JFrame {
         Border padding = BorderFactory.createEmptyBorder(0, 10, 0, 10);
         border = BorderFactory.createCompoundBorder(border, padding);
 
-        // Sets up the tile side panel
-        tileSideLabel = new JLabel("Tile side size (" + minTileSide + "-" + maxTileSide + " px):");
-        tileSideLabel.setBounds(870, 100, 310, 30);
-        tileSideLabel.setFont(new Font("Helvetica", Font.BOLD, 25));
-        tileSideLabel.setForeground(textColor);
-        sidePanel.add(tileSideLabel);
-
-        // Sets up the tile side input
-        tileSideInput = new JTextField("30");
-        tileSideInput.setBounds(870, 150, 310, 60);
-        tileSideInput.setFont(new Font("Helvetica", Font.BOLD, 25));
-        tileSideInput.setForeground(tertiaryColor);
-        tileSideInput.setBackground(secondaryColor);
-        tileSideInput.setCaretColor(tertiaryColor);
-        tileSideInput.setBorder(border);
-        sidePanel.add(tileSideInput);
-
-        // Sets up the step delay label
-        stepDelayLabel = new JLabel("Step delay ("+ minStepDelay + "-" + maxStepDelay + " ms):");
-        stepDelayLabel.setBounds(870, 250, 310, 30);
-        stepDelayLabel.setFont(new Font("Helvetica", Font.BOLD, 25));
-        stepDelayLabel.setForeground(textColor);
-        sidePanel.add(stepDelayLabel);
+        // Sets up the maze side label
+        mazeSideLabel = new JLabel("Maze side (" + minMazeSide + "-" + maxMazeSide + " tiles):");
+        mazeSideLabel.setBounds(870, 100, 310, 30);
+        mazeSideLabel.setFont(new Font("Helvetica", Font.BOLD, 25));
+        mazeSideLabel.setForeground(textColor);
+        sidePanel.add(mazeSideLabel);
+
+        // Sets up the maze side input
+        mazeSideInput = new JTextField("12");
+        mazeSideInput.setBounds(870, 150, 310, 60);
+        mazeSideInput.setFont(new Font("Helvetica", Font.BOLD, 25));
+        mazeSideInput.setForeground(tertiaryColor);
+        mazeSideInput.setBackground(secondaryColor);
+        mazeSideInput.setCaretColor(tertiaryColor);
+        mazeSideInput.setBorder(border);
+        sidePanel.add(mazeSideInput);
+
+        // Sets up the steps per second label
+        stepsPerSecondLabel = new JLabel("Steps/s (" + minStepsPerSecond + "-" + maxStepsPerSecond
+                                         + "):");
+        stepsPerSecondLabel.setBounds(870, 250, 310, 30);
+        stepsPerSecondLabel.setFont(new Font("Helvetica", Font.BOLD, 25));
+        stepsPerSecondLabel.setForeground(textColor);
+        sidePanel.add(stepsPerSecondLabel);
         
-        // Sets up the step delay input
-        stepDelayInput = new JTextField("20");
-        stepDelayInput.setBounds(870, 300, 310, 60);
-        stepDelayInput.setFont(new Font("Helvetica", Font.BOLD, 25));
-        stepDelayInput.setForeground(tertiaryColor);
-        stepDelayInput.setBackground(secondaryColor);
-        stepDelayInput.setCaretColor(tertiaryColor);
-        stepDelayInput.setBorder(border);
-        sidePanel.add(stepDelayInput);
+        // Sets up the steps per second input
+        stepsPerSecondInput = new JTextField("50");
+        stepsPerSecondInput.setBounds(870, 300, 310, 60);
+        stepsPerSecondInput.setFont(new Font("Helvetica", Font.BOLD, 25));
+        stepsPerSecondInput.setForeground(tertiaryColor);
+        stepsPerSecondInput.setBackground(secondaryColor);
+        stepsPerSecondInput.setCaretColor(tertiaryColor);
+        stepsPerSecondInput.setBorder(border);
+        sidePanel.add(stepsPerSecondInput);
+
+        // Sets up the algorithm label
+        algorithmLabel = new JLabel("Algorithm:");
+        algorithmLabel.setBounds(870, 400, 310, 30);
+        algorithmLabel.setFont(new Font("Helvetica", Font.BOLD, 25));
+        algorithmLabel.setForeground(textColor);
+        sidePanel.add(algorithmLabel);
+
+        // Sets up the algorithm input
+        algorithmInput = new JComboBox<>(AlgorithmType.values());
+        algorithmInput.setBounds(870, 450, 310, 60);
+        algorithmInput.setFont(new Font("Helvetica", Font.BOLD, 25));
+        algorithmInput.setForeground(tertiaryColor);
+        algorithmInput.setBackground(secondaryColor);
+        algorithmInput.setBorder(BorderFactory.createLineBorder(textColor, 3));
+        sidePanel.add(algorithmInput);
+
+        // Sets up the metrics input
+        metricsInput = new JCheckBox("Show metrics");
+        metricsInput.setBounds(870, 530, 310, 30);
+        metricsInput.setFont(new Font("Helvetica", Font.BOLD, 20));
+        metricsInput.setForeground(textColor);
+        metricsInput.setBackground(secondaryColor);
+        metricsInput.setFocusPainted(false);
+        sidePanel.add(metricsInput);
+
+        // Sets up the metrics label, hidden until the metrics are shown
+        metricsLabel = new JLabel();
+        metricsLabel.setBounds(870, 565, 310, 70);
+        metricsLabel.setFont(new Font("Helvetica", Font.PLAIN, 15));
+        metricsLabel.setForeground(tertiaryColor);
+        metricsLabel.setVisible(false);
+        sidePanel.add(metricsLabel);
 
         // Sets up the generate button
         generateButton = new JCustomButton("GENERATE");
-        generateButton.setBounds(870, 650, 310, 80);
-        generateButton.setFont(new Font("Helvetica", Font.BOLD, 35));
+        generateButton.setBounds(870, 650, 210, 80);
+        generateButton.setFont(new Font("Helvetica", Font.BOLD, 30));
+        generateButton.setMargin(new Insets(0, 0, 0, 0));
         generateButton.setForeground(secondaryColor);   
         generateButton.setBackground(tertiaryColor);
         generateButton.setHoveredColor(tertiaryColor.brighter().brighter().brighter());
         sidePanel.add(generateButton);
 
+        // Sets up the pause button, which shows the action it does next
+        pauseButton = new JCustomButton(pauseText);
+        pauseButton.setBounds(1100, 650, 80, 80);
+        pauseButton.setFont(new Font("Helvetica", Font.BOLD, 35));
+        pauseButton.setMargin(new Insets(0, 0, 0, 0));
+        pauseButton.setForeground(secondaryColor);
+        pauseButton.setBackground(tertiaryColor);
+        pauseButton.setHoveredColor(tertiaryColor.brighter().brighter().brighter());
+        sidePanel.add(pauseButton);
+
         // Sets up the solve button
         solveButton = new JCustomButton("SOLVE");
         solveButton.setBounds(870, 750, 210, 80);
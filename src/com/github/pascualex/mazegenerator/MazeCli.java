@@ -0,0 +1,378 @@
+package com.github.pascualex.mazegenerator;
+
+import com.github.pascualex.mazegenerator.engine.MazeEngine;
+import com.github.pascualex.mazegenerator.engine.MazeJob;
+import com.github.pascualex.mazegenerator.export.ExportFormat;
+import com.github.pascualex.mazegenerator.maze.Maze;
+import com.github.pascualex.mazegenerator.maze.algorithms.AlgorithmType;
+import com.github.pascualex.mazegenerator.maze.algorithms.EllerStream;
+import com.github.pascualex.mazegenerator.maze.components.CellLayout;
+import com.github.pascualex.mazegenerator.maze.components.Grid;
+import com.github.pascualex.mazegenerator.maze.components.PackedGrid;
+import com.github.pascualex.mazegenerator.maze.io.MappedGrid;
+import com.github.pascualex.mazegenerator.maze.io.MazeFile;
+import com.github.pascualex.mazegenerator.maze.io.MazeFileWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class defines the command line interface of the maze generator, which builds or loads a
+ * maze and exports it without opening any window, so it also works in headless environments. It
+ * can also build many mazes at once on several threads, reporting the throughput, the latency and
+ * the peak heap at the end.
+ * @author Alejandro Pascual
+ */
+public class MazeCli {
+    private static final String USAGE = String.join("\n",
+        "Options:",
+        "  --size CxR         Columns and rows of the maze (default 50x50)",
+        "  --algorithm NAME   Algorithm that builds the maze (default RECURSIVE_BACKTRACKER)",
+        "  --seed N           Seed of the maze (default random)",
+        "  --braid F          Fraction of dead ends removed, from 0 to 1 (default 0)",
+        "  --loops F          Fraction of the walls left opened, from 0 to 1 (default 0)",
+        "  --solve            Marks the solution path of a built maze",
+        "  --input FILE       Loads a saved maze instead of building one",
+        "  --format FORMAT    png, svg, ascii, maze or none (default ascii)",
+        "  --tile-side N      Side of each cell in pixels, for images (default 10)",
+        "  --output FILE      File to write (default standard output), or directory when",
+        "                     building several mazes",
+        "  --count N          Number of mazes to build, with consecutive seeds (default 1)",
+        "  --threads N        Number of threads that build the mazes (default 1)",
+        "Building several mazes, using several threads or the none format prints a report.");
+    private static final List<String> VALUE_OPTIONS = Arrays.asList(
+        "--size", "--algorithm", "--seed", "--braid", "--loops", "--input", "--format",
+        "--tile-side", "--output", "--count", "--threads");
+
+    private int columns = 50;
+    private int rows = 50;
+    private AlgorithmType algorithmType = AlgorithmType.RECURSIVE_BACKTRACKER;
+    private long seed = new SplittableRandom().nextLong();
+    private double deadEndFraction = 0;
+    private double loopFraction = 0;
+    private boolean solve = false;
+    private Path input = null;
+    private String format = "ascii";
+    private int tileSide = 10;
+    private Path output = null;
+    private int count = 1;
+    private int threads = 1;
+
+    /**
+     * Runs the command line interface and exits with an error code if it fails.
+     * @param args The options of the command line.
+     */
+    public static void main(String[] args) {
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+        System.exit(new MazeCli().run(args));
+    }
+
+    /**
+     * Parses the options, builds or loads the maze and exports it.
+     * @param args The options of the command line.
+     * @return The exit code, 0 if the maze was exported.
+     */
+    public int run(String[] args) {
+        try {
+            parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+
+        try {
+            if (count > 1 || threads > 1 || format.equals("none")) exportAll();
+            else export();
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Parses the options of the command line into the parameters.
+     * @param args The options of the command line.
+     */
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--solve")) {
+                solve = true;
+                continue;
+            }
+            if (!VALUE_OPTIONS.contains(option)) {
+                throw new IllegalArgumentException("Unknown option: " + option);
+            }
+            if (i+1 == args.length) throw new IllegalArgumentException("Missing value: " + option);
+
+            String value = args[++i];
+            boolean valid;
+            try {
+                valid = parseOption(option, value);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid value for " + option + ": " + value, e);
+            }
+            if (!valid) {
+                throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+            }
+        }
+
+        // A loaded maze can't be solved, since its tiles are only read
+        if (solve && input != null) {
+            throw new IllegalArgumentException("A loaded maze can't be solved: --solve, --input");
+        }
+
+        // Rejects mazes too large for a grid in any layout, tiled being the largest, unless they
+        // are streamed to a file without a grid
+        long tiles = PackedGrid.getStorageSize(columns, rows, CellLayout.TILED);
+        if (input == null && !getStreamedSave() && tiles > PackedGrid.MAX_TILES) {
+            throw new IllegalArgumentException("Too many tiles: --size " + columns + "x" + rows);
+        }
+    }
+
+    /**
+     * Parses an option that has a value into its parameter.
+     * @param option The name of the option.
+     * @param value The value of the option.
+     * @return If the value is in the range of the option.
+     * @throws IllegalArgumentException If the value can't be parsed or the option is unknown.
+     */
+    private boolean parseOption(String option, String value) {
+        switch (option) {
+            case "--size":
+                String[] size = value.toLowerCase().split("x");
+                if (size.length != 2) return false;
+                columns = Integer.parseInt(size[0]);
+                rows = Integer.parseInt(size[1]);
+                return columns > 0 && rows > 0;
+            case "--algorithm":
+                algorithmType = AlgorithmType.valueOf(value.toUpperCase());
+                return true;
+            case "--seed":
+                seed = Long.parseLong(value);
+                return true;
+            case "--braid":
+                deadEndFraction = Double.parseDouble(value);
+                return deadEndFraction >= 0 && deadEndFraction <= 1;
+            case "--loops":
+                loopFraction = Double.parseDouble(value);
+                return loopFraction >= 0 && loopFraction <= 1;
+            case "--input":
+                input = Paths.get(value);
+                return true;
+            case "--format":
+                format = value.toLowerCase();
+                if (format.equals("maze") || format.equals("none")) return true;
+                ExportFormat.valueOf(format.toUpperCase());
+                return true;
+            case "--tile-side":
+                tileSide = Integer.parseInt(value);
+                return tileSide > 0;
+            case "--output":
+                output = Paths.get(value);
+                return true;
+            case "--count":
+                count = Integer.parseInt(value);
+                return count > 0;
+            case "--threads":
+                threads = Integer.parseInt(value);
+                return threads > 0;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + option);
+        }
+    }
+
+    /**
+     * Builds or loads the maze and writes it in the chosen format.
+     * @throws IOException If the maze can't be read or written.
+     */
+    private void export() throws IOException {
+        // Saves a streamed maze directly, since it never needs to be in memory
+        if (input == null && getStreamedSave()) {
+            if (output == null) throw new IOException("The maze format needs an output file");
+            try (MazeFileWriter writer = new MazeFileWriter(output, columns, rows, seed,
+                                                            algorithmType)) {
+                new EllerStream(columns, rows, seed).generate(writer);
+            }
+            return;
+        }
+
+        // Loads the maze or builds it
+        Grid tiles;
+        if (input != null) {
+            MappedGrid mappedGrid = MazeFile.open(input);
+            seed = mappedGrid.getSeed();
+            algorithmType = mappedGrid.getAlgorithmType();
+            tiles = mappedGrid;
+        } else {
+            Maze maze = new Maze();
+            maze.setAlgorithmType(algorithmType);
+            maze.setBraiding(deadEndFraction, loopFraction);
+            maze.restart(columns, rows, seed);
+            maze.generateFully();
+            if (solve) maze.solveFully();
+            tiles = maze.getTiles();
+        }
+
+        // Writes the maze in the chosen format, to the standard output if there is no file
+        if (output != null) {
+            write(tiles, seed, output);
+        } else if (format.equals("maze")) {
+            throw new IOException("The maze format needs an output file");
+        } else {
+            try (OutputStream out = new BufferedOutputStream(System.out, 1 << 16)) {
+                ExportFormat.valueOf(format.toUpperCase()).create(tileSide).export(tiles, out);
+            }
+        }
+    }
+
+    /**
+     * Returns if a single maze is saved as it's streamed, row by row, without building a grid.
+     * @return If the maze is streamed to its file.
+     */
+    private boolean getStreamedSave() {
+        return format.equals("maze") && !solve && count == 1 && threads == 1
+               && algorithmType == AlgorithmType.STREAMED_ELLER
+               && deadEndFraction == 0 && loopFraction == 0;
+    }
+
+    /**
+     * Builds several mazes with consecutive seeds on the maze engine, writes each of them to its
+     * own file in the output directory, unless the format is none, and prints a report. Each maze
+     * is written by its own job, so the latencies and run times include the writing, and the writes
+     * are bounded by the queue of the engine like the builds.
+     * @throws IOException If a maze can't be built or written.
+     */
+    private void exportAll() throws IOException {
+        if (input != null) throw new IOException("Saved mazes can't be loaded in bulk");
+        boolean write = !format.equals("none");
+        if (write) {
+            if (output == null) throw new IOException("Several mazes need an output directory");
+            Files.createDirectories(output);
+        }
+        String extension = !write || format.equals("maze")
+                           ? "maze" : ExportFormat.valueOf(format.toUpperCase()).getExtension();
+
+        // Submits the jobs, recording the times of each one when it completes
+        long[] latencies = new long[count];
+        long[] runTimes = new long[count];
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        resetPeakHeap();
+        long startTime = System.nanoTime();
+        MazeEngine engine = new MazeEngine(threads, threads*2);
+        try {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                MazeJob job = new MazeJob(columns, rows, algorithmType, seed+i, deadEndFraction,
+                                          loopFraction, solve);
+                Path path = output != null ? output.resolve("maze-" + index + "." + extension)
+                                           : null;
+                engine.submit(job, maze -> {
+                    if (!write) return;
+                    try {
+                        write(maze.getTiles(), job.getSeed(), path);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }).whenComplete((result, failure) -> {
+                    if (failure != null) {
+                        error.compareAndSet(null, failure);
+                        return;
+                    }
+                    latencies[index] = result.getLatency();
+                    runTimes[index] = result.getRunTime();
+                });
+            }
+            engine.shutdown();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while building the mazes", e);
+        }
+        long elapsedTime = System.nanoTime()-startTime;
+        Throwable failure = error.get();
+        if (failure instanceof UncheckedIOException) {
+            throw ((UncheckedIOException) failure).getCause();
+        }
+        if (failure != null) throw new IOException(failure.toString(), failure);
+
+        // Prints the throughput, the latency percentiles and the peak heap
+        double seconds = elapsedTime/1e9;
+        Arrays.sort(latencies);
+        Arrays.sort(runTimes);
+        System.out.printf("Mazes:      %d of %dx%d, %s, threads: %d%n", count, columns, rows,
+                          algorithmType.name(), threads);
+        System.out.printf("Time:       %.3f s%n", seconds);
+        System.out.printf("Throughput: %.0f cells/s, %.1f mazes/s%n",
+                          (double) columns*rows*count/seconds, count/seconds);
+        System.out.printf("Latency:    p50 %.3f ms, p99 %.3f ms%n",
+                          getPercentile(latencies, 0.5)/1e6, getPercentile(latencies, 0.99)/1e6);
+        System.out.printf("Run time:   p50 %.3f ms, p99 %.3f ms%n",
+                          getPercentile(runTimes, 0.5)/1e6, getPercentile(runTimes, 0.99)/1e6);
+        System.out.printf("Peak heap:  %.1f MB%n", getPeakHeap()/1e6);
+    }
+
+    /**
+     * Writes a maze to a file in the chosen format.
+     * @param tiles The tiles of the maze.
+     * @param seed The seed from which the maze was built.
+     * @param path The path of the file.
+     * @throws IOException If the file can't be written.
+     */
+    private void write(Grid tiles, long seed, Path path) throws IOException {
+        if (format.equals("maze")) {
+            MazeFile.save(tiles, seed, algorithmType, path);
+            return;
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)) {
+            ExportFormat.valueOf(format.toUpperCase()).create(tileSide).export(tiles, out);
+        }
+    }
+
+    /**
+     * Returns a percentile of some sorted values, with the nearest-rank method.
+     * @param values The sorted values.
+     * @param fraction The fraction of values that are lower or equal, from 0 to 1.
+     * @return The value of the percentile.
+     */
+    private static long getPercentile(long[] values, double fraction) {
+        int rank = (int) Math.ceil(fraction*values.length);
+        return values[Math.max(rank, 1)-1];
+    }
+
+    /**
+     * Resets the peak usage of the memory pools of the heap.
+     */
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+    }
+
+    /**
+     * Returns the sum of the peak usages of the memory pools of the heap since the last reset.
+     * @return The peak heap, in bytes.
+     */
+    private static long getPeakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+}
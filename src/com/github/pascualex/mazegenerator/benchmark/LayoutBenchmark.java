@@ -0,0 +1,74 @@
+package com.github.pascualex.mazegenerator.benchmark;
+
+import com.github.pascualex.mazegenerator.maze.algorithms.AlgorithmType;
+import com.github.pascualex.mazegenerator.maze.algorithms.MazeGenerationAlgorithm;
+import com.github.pascualex.mazegenerator.maze.components.CellLayout;
+import com.github.pascualex.mazegenerator.maze.components.PackedGrid;
+import com.github.pascualex.mazegenerator.maze.solving.BreadthFirstPathFinder;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class measures the time it takes to build a maze and to find its solution with a
+ * breadth-first search with each cell layout of the packed grid, reporting the speedup over the
+ * row-major layout. The default grid takes 64 MB, so it doesn't fit in the caches.
+ * @author Alejandro Pascual
+ */
+public class LayoutBenchmark {
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+
+    /**
+     * The main method builds and solves the same mazes with every cell layout.
+     * @param args The side of the maze, 4000 by default, and the algorithm that builds it,
+     * RECURSIVE_BACKTRACKER by default.
+     */
+    public static void main(String[] args) {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        AlgorithmType algorithmType = args.length > 1 ? AlgorithmType.valueOf(args[1])
+                                                      : AlgorithmType.RECURSIVE_BACKTRACKER;
+
+        System.out.printf("Maze %dx%d, %s, %.0f MB of tiles%n",
+                          side, side, algorithmType.name(), side*(double) side*4/1e6);
+        double generateBaseline = 0;
+        double solveBaseline = 0;
+        for (CellLayout layout : CellLayout.values()) {
+            PackedGrid tiles = new PackedGrid(side, side, 0, layout);
+            BreadthFirstPathFinder pathFinder = new BreadthFirstPathFinder(tiles);
+            int[] path = new int[side*side];
+
+            // Discards the first runs, which include the compilation of the code
+            double bestGenerate = Double.MAX_VALUE;
+            double bestSolve = Double.MAX_VALUE;
+            for (int run = 0; run < WARMUP_RUNS+MEASURED_RUNS; run++) {
+                tiles.clear(run);
+                long start = System.nanoTime();
+                MazeGenerationAlgorithm algorithm = algorithmType.create(ForkJoinPool.commonPool());
+                algorithm.restart(tiles, run);
+                algorithm.generateFully();
+                double generateMillis = (System.nanoTime()-start)/1e6;
+
+                start = System.nanoTime();
+                pathFinder.findPath(0, side*side-1, path);
+                double solveMillis = (System.nanoTime()-start)/1e6;
+
+                if (run >= WARMUP_RUNS) {
+                    bestGenerate = Math.min(bestGenerate, generateMillis);
+                    bestSolve = Math.min(bestSolve, solveMillis);
+                }
+            }
+
+            if (layout == CellLayout.ROW_MAJOR) {
+                generateBaseline = bestGenerate;
+                solveBaseline = bestSolve;
+            }
+            double millions = (double) side*side/1e6;
+            System.out.printf("%-10s generate: %9.2f ms, %6.2f Mtiles/s, speedup %.2fx%n",
+                              layout.name(), bestGenerate, millions/(bestGenerate/1e3),
+                              generateBaseline/bestGenerate);
+            System.out.printf("%-10s solve:    %9.2f ms, %6.2f Mtiles/s, speedup %.2fx%n",
+                              layout.name(), bestSolve, millions/(bestSolve/1e3),
+                              solveBaseline/bestSolve);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.github.pascualex.mazegenerator.benchmark;
+
+import com.github.pascualex.mazegenerator.maze.Maze;
+import com.github.pascualex.mazegenerator.maze.MazeView;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * This class measures the main operations of the maze for several grid sizes: restarting it,
+ * building it step by step or in a single call, solving it step by step, and repainting and
+ * painting it on an offscreen image, either whole or every few steps while it's being built. For
+ * each operation it reports the operations per second, the time per tile and the memory allocated
+ * per operation.
+ * @author Alejandro Pascual
+ */
+public class MazeBenchmark {
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+    private static final long SEED = 0;
+    private static final int FRAMES = 50;
+
+    // The results of the operations, kept so the compiler can't discard them
+    private static volatile long sink;
+
+    /**
+     * The main method runs all the operations for each grid size.
+     * @param args The sides of the grids, 100, 500, 1000, 2000 and 4000 by default.
+     */
+    public static void main(String[] args) {
+        int[] sides = {100, 500, 1000, 2000, 4000};
+        if (args.length > 0) {
+            sides = new int[args.length];
+            for (int i = 0; i < args.length; i++) sides[i] = Integer.parseInt(args[i]);
+        }
+
+        System.out.printf("%-10s %-10s %12s %12s %14s %12s%n",
+                          "Operation", "Size", "ops/s", "ns/tile", "alloc B/op", "alloc MB/s");
+        for (int side : sides) {
+            Maze maze = new Maze();
+
+            // Restarts the maze
+            measure("restart", side, new Operation() {
+                @Override
+                public long run() {
+                    maze.restart(side, side, SEED);
+                    return maze.getTilesGenerated();
+                }
+            });
+
+            // Builds the maze step by step
+            measure("generate", side, new Operation() {
+                @Override
+                public void prepare() {
+                    maze.restart(side, side, SEED);
+                }
+
+                @Override
+                public long run() {
+                    while (!maze.getMazeFinished()) maze.step();
+                    return maze.getTilesGenerated();
+                }
+            });
+
+            // Builds the maze in a single call, through the loop without steps of the algorithm
+            measure("full", side, new Operation() {
+                @Override
+                public void prepare() {
+                    maze.restart(side, side, SEED);
+                }
+
+                @Override
+                public long run() {
+                    maze.generateFully();
+                    return maze.getTilesGenerated();
+                }
+            });
+
+            // Finds the solution and solves the maze step by step
+            measure("solve", side, new Operation() {
+                @Override
+                public void prepare() {
+                    maze.restart(side, side, SEED);
+                    maze.generateFully();
+                }
+
+                @Override
+                public long run() {
+                    while (!maze.getSolutionFinished()) maze.step();
+                    return maze.getDepth();
+                }
+            });
+
+            // Repaints the layers of the view and paints them on an offscreen image, with one
+            // pixel per tile
+            int imageSide = side*2+1;
+            BufferedImage image = new BufferedImage(imageSide, imageSide,
+                                                    BufferedImage.TYPE_INT_RGB);
+            MazeView mazeView = new MazeView(maze, Color.BLACK, Color.WHITE, Color.RED);
+            mazeView.setSize(imageSide, imageSide);
+            mazeView.fitView();
+            mazeView.setPaintMaze(true);
+
+            // Repaints and paints the whole finished maze, as after a restart
+            measure("paint", side, new Operation() {
+                @Override
+                public void prepare() {
+                    maze.restart(side, side, SEED);
+                    maze.generateFully();
+                }
+
+                @Override
+                public long run() {
+                    return repaint(mazeView, image);
+                }
+            });
+
+            // Builds the maze step by step, repainting and painting the changes every few steps
+            // like the application does at a high speed
+            int stepsPerFrame = Math.max(1, side*side/FRAMES);
+            measure("frames", side, new Operation() {
+                @Override
+                public void prepare() {
+                    maze.restart(side, side, SEED);
+                    repaint(mazeView, image);
+                }
+
+                @Override
+                public long run() {
+                    long checksum = 0;
+                    while (!maze.getMazeFinished()) {
+                        for (int k = 0; k < stepsPerFrame && !maze.getMazeFinished(); k++) {
+                            maze.step();
+                        }
+                        checksum += repaint(mazeView, image);
+                    }
+                    return checksum;
+                }
+            });
+        }
+    }
+
+    /**
+     * Repaints the changes of the maze in the view and paints the view on an image.
+     * @param mazeView The view of the maze.
+     * @param image The image on which the view is painted.
+     * @return A pixel of the painted image, so the painting can't be discarded.
+     */
+    private static long repaint(MazeView mazeView, BufferedImage image) {
+        mazeView.repaintChanges();
+        Graphics2D g2d = image.createGraphics();
+        mazeView.paint(g2d);
+        g2d.dispose();
+        return image.getRGB(1, 1);
+    }
+
+    /**
+     * Runs an operation several times, discarding the first runs, and prints the averages of the
+     * measured runs.
+     * @param name The name of the operation.
+     * @param side The side of the grid.
+     * @param operation The operation to measure.
+     */
+    private static void measure(String name, int side, Operation operation) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        long totalTime = 0;
+        long totalAllocated = 0;
+        for (int run = 0; run < WARMUP_RUNS+MEASURED_RUNS; run++) {
+            operation.prepare();
+
+            long allocated = getAllocatedBytes(threads, thread);
+            long start = System.nanoTime();
+            long result = operation.run();
+            long time = System.nanoTime()-start;
+            allocated = getAllocatedBytes(threads, thread)-allocated;
+            sink += result;
+
+            if (run >= WARMUP_RUNS) {
+                totalTime += time;
+                totalAllocated += allocated;
+            }
+        }
+
+        double time = (double) totalTime/MEASURED_RUNS;
+        double allocated = (double) totalAllocated/MEASURED_RUNS;
+        System.out.printf("%-10s %-10s %12.3f %12.2f %14.0f %12.2f%n",
+                          name, side+"x"+side, 1e9/time, time/((double) side*side), allocated,
+                          allocated/1e6/(time/1e9));
+    }
+
+    /**
+     * Returns the bytes allocated by a thread so far, if the virtual machine supports measuring it.
+     * @param threads The thread management bean of the virtual machine.
+     * @param thread The id of the thread.
+     * @return The bytes allocated by the thread, or 0 if they can't be measured.
+     */
+    private static long getAllocatedBytes(ThreadMXBean threads, long thread) {
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) return 0;
+
+        return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(thread);
+    }
+
+    /**
+     * This interface defines an operation to measure, with an optional preparation that isn't
+     * measured.
+     */
+    private interface Operation {
+
+        /**
+         * Prepares the state needed by the operation.
+         */
+        default void prepare() {
+        }
+
+        /**
+         * Runs the operation.
+         * @return A value that depends on the results of the operation.
+         */
+        long run();
+    }
+}
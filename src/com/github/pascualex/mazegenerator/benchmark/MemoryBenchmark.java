@@ -0,0 +1,51 @@
+package com.github.pascualex.mazegenerator.benchmark;
+
+import com.github.pascualex.mazegenerator.maze.Maze;
+
+/**
+ * This class measures the memory retained by the tiles of a maze, reported in bytes per tile, and
+ * the time it takes to restart it.
+ * @author Alejandro Pascual
+ */
+public class MemoryBenchmark {
+
+    /**
+     * The main method restarts a maze of the given size and prints the heap it retains.
+     * @param args The number of columns and rows of the maze. Both default to 1000.
+     */
+    public static void main(String[] args) {
+        int columns = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : columns;
+
+        // Measures the heap before and after initialising the tiles
+        Maze maze = new Maze();
+        long before = usedMemory();
+        long start = System.nanoTime();
+        maze.restart(columns, rows);
+        long restartTime = System.nanoTime()-start;
+        long after = usedMemory();
+
+        // Measures a second restart, which reuses the tiles
+        start = System.nanoTime();
+        maze.restart(columns, rows);
+        long reuseTime = System.nanoTime()-start;
+
+        // Prints the results, keeping the maze reachable until the measure is done
+        long tiles = (long) maze.getTiles().getColumns()*maze.getTiles().getRows();
+        System.out.printf("Tiles:          %d (%dx%d)%n", tiles, columns, rows);
+        System.out.printf("Retained heap:  %d bytes%n", after-before);
+        System.out.printf("Bytes per tile: %.2f%n", (double) (after-before)/tiles);
+        System.out.printf("First restart:  %.2f ms%n", restartTime/1e6);
+        System.out.printf("Reused restart: %.2f ms%n", reuseTime/1e6);
+    }
+
+    /**
+     * Returns the heap in use after requesting several garbage collections.
+     * @return The heap in use, in bytes.
+     */
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) System.gc();
+        return runtime.totalMemory()-runtime.freeMemory();
+    }
+}
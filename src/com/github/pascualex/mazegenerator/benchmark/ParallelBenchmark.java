@@ -0,0 +1,60 @@
+package com.github.pascualex.mazegenerator.benchmark;
+
+import com.github.pascualex.mazegenerator.maze.algorithms.ParallelBacktrackerAlgorithm;
+import com.github.pascualex.mazegenerator.maze.components.PackedGrid;
+
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class measures the time it takes the parallel backtracker to build a maze with different
+ * numbers of threads, reporting the speedup over a single thread.
+ * @author Alejandro Pascual
+ */
+public class ParallelBenchmark {
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+
+    /**
+     * The main method builds the same maze with 1, 2, 4, 8 and all the available threads.
+     * @param args The side of the maze, 4000 by default, and the side of the blocks, 128 by
+     * default.
+     */
+    public static void main(String[] args) {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        int blockSide = args.length > 1 ? Integer.parseInt(args[1]) : 128;
+
+        // Lists the numbers of threads to measure
+        TreeSet<Integer> threadCounts = new TreeSet<>();
+        int available = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= 8; threads *= 2) threadCounts.add(threads);
+        threadCounts.add(available);
+
+        System.out.printf("Maze %dx%d, blocks of %d, %d processors%n", 
+                          side, side, blockSide, available);
+        PackedGrid tiles = new PackedGrid(side, side, 0);
+        double baseline = 0;
+        for (int threads : threadCounts) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            ParallelBacktrackerAlgorithm algorithm =
+                new ParallelBacktrackerAlgorithm(blockSide, pool);
+
+            // Discards the first runs, which include the compilation of the code
+            double best = Double.MAX_VALUE;
+            for (int run = 0; run < WARMUP_RUNS+MEASURED_RUNS; run++) {
+                tiles.clear(run);
+                long start = System.nanoTime();
+                algorithm.restart(tiles, run);
+                algorithm.generateFully();
+                double millis = (System.nanoTime()-start)/1e6;
+                if (run >= WARMUP_RUNS) best = Math.min(best, millis);
+            }
+            pool.shutdown();
+
+            if (threads == 1) baseline = best;
+            double cellsPerSecond = (double) side*side/(best/1e3);
+            System.out.printf("%3d threads: %9.2f ms, %6.2f Mtiles/s, speedup %.2fx%n",
+                              threads, best, cellsPerSecond/1e6, baseline/best);
+        }
+    }
+}
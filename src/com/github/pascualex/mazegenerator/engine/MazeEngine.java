@@ -0,0 +1,193 @@
+package com.github.pascualex.mazegenerator.engine;
+
+import com.github.pascualex.mazegenerator.maze.Maze;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * This class defines a service that builds and solves many independent mazes concurrently on a
+ * fixed number of threads. The number of jobs waiting in its queue is bounded, and submitting a
+ * job blocks while the queue is full, so producers can't get ahead of the engine. Each job builds
+ * its own maze, since mazes share no state, and parallel algorithms split their work on a fork-join
+ * pool owned by the engine, with as many threads as the engine, instead of the common pool.
+ * @author Alejandro Pascual
+ */
+public class MazeEngine {
+    private final ThreadPoolExecutor executor;
+    private final ForkJoinPool pool;
+    private final Semaphore capacity;
+
+    private final LongAdder completedJobs;
+    private final LongAdder failedJobs;
+    private final LongAdder totalLatency;
+    private final AtomicLong maxLatency;
+
+    /**
+     * Instantiates a maze engine given its number of threads and the capacity of its queue.
+     * @param threads The number of threads that run jobs.
+     * @param queueCapacity The number of jobs that can wait while all the threads are busy.
+     */
+    public MazeEngine(int threads, int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "maze-engine-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // The queue of the executor is bounded by the permits of the capacity instead, since they
+        // are released while the thread of a finishing job is still busy
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                                          new LinkedBlockingQueue<>(), threadFactory);
+        pool = new ForkJoinPool(threads);
+        capacity = new Semaphore(threads+queueCapacity);
+
+        completedJobs = new LongAdder();
+        failedJobs = new LongAdder();
+        totalLatency = new LongAdder();
+        maxLatency = new AtomicLong();
+    }
+
+    /**
+     * Submits a job to the engine, waiting while its queue is full.
+     * @param job The job to run.
+     * @return A future completed with the result of the job, or exceptionally if the job failed or
+     * the engine was shut down.
+     * @throws InterruptedException If the thread is interrupted while it waits.
+     */
+    public CompletableFuture<MazeResult> submit(MazeJob job) throws InterruptedException {
+        return submit(job, maze -> { });
+    }
+
+    /**
+     * Submits a job to the engine, waiting while its queue is full. The finished maze is passed to
+     * a consumer on the thread of the job, before the job releases its place in the queue, so the
+     * time spent consuming it counts as part of the job.
+     * @param job The job to run.
+     * @param consumer The consumer of the finished maze, which fails the job by throwing an
+     *                 unchecked exception.
+     * @return A future completed with the result of the job, or exceptionally if the job failed or
+     * the engine was shut down.
+     * @throws InterruptedException If the thread is interrupted while it waits.
+     */
+    public CompletableFuture<MazeResult> submit(MazeJob job, Consumer<Maze> consumer)
+        throws InterruptedException {
+        capacity.acquire();
+
+        CompletableFuture<MazeResult> future = new CompletableFuture<>();
+        long submitTime = System.nanoTime();
+        try {
+            executor.execute(() -> run(job, consumer, submitTime, future));
+        } catch (RejectedExecutionException e) {
+            capacity.release();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Builds, and solves if requested, the maze of a job, passes it to the consumer of the job and
+     * completes its future.
+     * @param job The job to run.
+     * @param consumer The consumer of the finished maze.
+     * @param submitTime The moment the job was submitted, in nanoseconds of System.nanoTime().
+     * @param future The future of the job.
+     */
+    private void run(MazeJob job, Consumer<Maze> consumer, long submitTime,
+                     CompletableFuture<MazeResult> future) {
+        long startTime = System.nanoTime();
+        try {
+            Maze maze = new Maze();
+            maze.setAlgorithmType(job.getAlgorithmType());
+            maze.setPool(pool);
+            maze.setBraiding(job.getDeadEndFraction(), job.getLoopFraction());
+            maze.restart(job.getColumns(), job.getRows(), job.getSeed());
+            maze.generateFully();
+            if (job.getSolve()) maze.solveFully();
+            consumer.accept(maze);
+
+            // Updates the metrics before completing the future, so they already include the job
+            long endTime = System.nanoTime();
+            long latency = endTime-submitTime;
+            totalLatency.add(latency);
+            maxLatency.accumulateAndGet(latency, Math::max);
+            completedJobs.increment();
+            capacity.release();
+            future.complete(new MazeResult(job, maze, startTime-submitTime, endTime-startTime));
+        } catch (RuntimeException | Error e) {
+            failedJobs.increment();
+            capacity.release();
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Returns the number of jobs waiting for a thread.
+     * @return The depth of the queue.
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the number of jobs running at this moment.
+     * @return The number of active jobs.
+     */
+    public int getActiveJobs() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Returns the number of jobs that finished successfully.
+     * @return The number of completed jobs.
+     */
+    public long getCompletedJobs() {
+        return completedJobs.sum();
+    }
+
+    /**
+     * Returns the number of jobs that failed with an exception.
+     * @return The number of failed jobs.
+     */
+    public long getFailedJobs() {
+        return failedJobs.sum();
+    }
+
+    /**
+     * Returns the mean latency of the completed jobs, from their submission to their end.
+     * @return The mean latency, in nanoseconds, or 0 if no job has completed.
+     */
+    public long getMeanLatency() {
+        long completed = completedJobs.sum();
+        return completed == 0 ? 0 : totalLatency.sum()/completed;
+    }
+
+    /**
+     * Returns the highest latency of the completed jobs, from their submission to their end.
+     * @return The highest latency, in nanoseconds.
+     */
+    public long getMaxLatency() {
+        return maxLatency.get();
+    }
+
+    /**
+     * Stops accepting jobs and waits for the submitted ones to finish, then stops the pool of the
+     * parallel algorithms.
+     * @throws InterruptedException If the thread is interrupted while it waits.
+     */
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.pascualex.mazegenerator.engine;
+
+import com.github.pascualex.mazegenerator.maze.algorithms.AlgorithmType;
+
+/**
+ * This class defines a request to build a maze, and optionally solve it, in a maze engine.
+ * @author Alejandro Pascual
+ */
+public final class MazeJob {
+    private final int columns;
+    private final int rows;
+    private final AlgorithmType algorithmType;
+    private final long seed;
+    private final double deadEndFraction;
+    private final double loopFraction;
+    private final boolean solve;
+
+    /**
+     * Instantiates a maze job given the parameters of the maze.
+     * @param columns The number of columns in the maze.
+     * @param rows The number of rows in the maze.
+     * @param algorithmType The algorithm used to build the maze.
+     * @param seed The seed from which the maze is built.
+     * @param solve If the maze must also be solved.
+     */
+    public MazeJob(int columns, int rows, AlgorithmType algorithmType, long seed, boolean solve) {
+        this(columns, rows, algorithmType, seed, 0, 0, solve);
+    }
+
+    /**
+     * Instantiates a maze job given the parameters of a braided maze.
+     * @param columns The number of columns in the maze.
+     * @param rows The number of rows in the maze.
+     * @param algorithmType The algorithm used to build the maze.
+     * @param seed The seed from which the maze is built.
+     * @param deadEndFraction The fraction of the dead ends to remove, from 0 to 1.
+     * @param loopFraction The fraction of the walls left to open, from 0 to 1.
+     * @param solve If the maze must also be solved.
+     */
+    public MazeJob(int columns, int rows, AlgorithmType algorithmType, long seed,
+                   double deadEndFraction, double loopFraction, boolean solve) {
+        this.columns = columns;
+        this.rows = rows;
+        this.algorithmType = algorithmType;
+        this.seed = seed;
+        this.deadEndFraction = deadEndFraction;
+        this.loopFraction = loopFraction;
+        this.solve = solve;
+    }
+
+    /**
+     * Returns the number of columns in the maze.
+     * @return The number of columns in the maze.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of rows in the maze.
+     * @return The number of rows in the maze.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the algorithm used to build the maze.
+     * @return The algorithm used to build the maze.
+     */
+    public AlgorithmType getAlgorithmType() {
+        return algorithmType;
+    }
+
+    /**
+     * Returns the seed from which the maze is built.
+     * @return The seed of the maze.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the fraction of the dead ends removed when braiding the maze.
+     * @return The fraction of the dead ends to remove.
+     */
+    public double getDeadEndFraction() {
+        return deadEndFraction;
+    }
+
+    /**
+     * Returns the fraction of the walls left opened when braiding the maze.
+     * @return The fraction of the walls to open.
+     */
+    public double getLoopFraction() {
+        return loopFraction;
+    }
+
+    /**
+     * Returns if the maze must also be solved.
+     * @return If the maze must be solved.
+     */
+    public boolean getSolve() {
+        return solve;
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.pascualex.mazegenerator.engine;
+
+import com.github.pascualex.mazegenerator.maze.Maze;
+
+/**
+ * This class defines the result of a maze job, with the finished maze and the time the job spent
+ * waiting and running.
+ * @author Alejandro Pascual
+ */
+public final class MazeResult {
+    private final MazeJob job;
+    private final Maze maze;
+    private final long waitTime;
+    private final long runTime;
+
+    /**
+     * Instantiates a maze result given its job, its maze and its times.
+     * @param job The job that built the maze.
+     * @param maze The finished maze.
+     * @param waitTime The time the job waited before running, in nanoseconds.
+     * @param runTime The time the job ran, in nanoseconds.
+     */
+    MazeResult(MazeJob job, Maze maze, long waitTime, long runTime) {
+        this.job = job;
+        this.maze = maze;
+        this.waitTime = waitTime;
+        this.runTime = runTime;
+    }
+
+    /**
+     * Returns the job that built the maze.
+     * @return The job of the result.
+     */
+    public MazeJob getJob() {
+        return job;
+    }
+
+    /**
+     * Returns the finished maze, which belongs only to the caller.
+     * @return The maze of the result.
+     */
+    public Maze getMaze() {
+        return maze;
+    }
+
+    /**
+     * Returns the time the job waited in the queue before running.
+     * @return The wait time, in nanoseconds.
+     */
+    public long getWaitTime() {
+        return waitTime;
+    }
+
+    /**
+     * Returns the time the job spent building, and solving if requested, the maze, including the
+     * time its consumer took.
+     * @return The run time, in nanoseconds.
+     */
+    public long getRunTime() {
+        return runTime;
+    }
+
+    /**
+     * Returns the time since the job was submitted until it finished.
+     * @return The latency of the job, in nanoseconds.
+     */
+    public long getLatency() {
+        return waitTime+runTime;
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.pascualex.mazegenerator.export;
+
+import com.github.pascualex.mazegenerator.maze.components.Grid;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * This class defines an exporter of mazes as plain text, with a line for each row of cells and a
+ * character for each cell: '#' for walls, ' ' for floors and '.' for the solution path.
+ * @author Alejandro Pascual
+ */
+public class AsciiExporter implements MazeExporter {
+    private static final byte[] CHARACTERS = {'#', ' ', '.'};
+
+    /**
+     * Writes a maze to an output stream as text, without closing it.
+     * @param tiles The tiles of the maze.
+     * @param out The output stream to write to.
+     * @throws IOException If the maze can't be written.
+     */
+    @Override
+    public void export(Grid tiles, OutputStream out) throws IOException {
+        CellRows cellRows = new CellRows(tiles);
+        byte[] cells = new byte[cellRows.getWidth()];
+        byte[] line = new byte[cells.length+1];
+        line[cells.length] = '\n';
+        for (int row = 0; row < cellRows.getHeight(); row++) {
+            cellRows.getRow(row, cells);
+            for (int i = 0; i < cells.length; i++) line[i] = CHARACTERS[cells[i]];
+            out.write(line);
+        }
+    }
+}
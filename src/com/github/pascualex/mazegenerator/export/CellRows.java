@@ -0,0 +1,111 @@
+package com.github.pascualex.mazegenerator.export;
+
+import com.github.pascualex.mazegenerator.maze.components.Direction;
+import com.github.pascualex.mazegenerator.maze.components.Grid;
+import com.github.pascualex.mazegenerator.maze.components.TileType;
+
+/**
+ * This class defines the layout of a finished maze as rows of cells, the same one the maze view
+ * paints: a grid of columns*2+1 by rows*2+1 cells where the tiles are the cells with odd
+ * coordinates, the passages are the cells between them and the rest are walls. The entrance is
+ * open above the upper left tile and the exit below the lower right one. Rows are computed on
+ * demand, so exporters only need to keep one of them in memory.
+ * @author Alejandro Pascual
+ */
+final class CellRows {
+    static final byte WALL = 0;
+    static final byte FLOOR = 1;
+    static final byte PATH = 2;
+
+    private final Grid tiles;
+
+    /**
+     * Instantiates the cell rows of a maze.
+     * @param tiles The tiles of the maze.
+     */
+    CellRows(Grid tiles) {
+        this.tiles = tiles;
+    }
+
+    /**
+     * Returns the number of cells in each row.
+     * @return The width of the maze, in cells.
+     */
+    int getWidth() {
+        return tiles.getColumns()*2+1;
+    }
+
+    /**
+     * Returns the number of rows of cells.
+     * @return The height of the maze, in cells.
+     */
+    int getHeight() {
+        return tiles.getRows()*2+1;
+    }
+
+    /**
+     * Computes a row of cells, each of them a wall, a floor or part of the solution path.
+     * @param row The index of the row of cells.
+     * @param cells The array where the cells are stored, which must fit the width.
+     */
+    void getRow(int row, byte[] cells) {
+        int columns = tiles.getColumns();
+        int rows = tiles.getRows();
+        int y = row/2;
+
+        // Rows with odd indices cross the tiles and the passages between them
+        if (row%2 == 1) {
+            cells[0] = WALL;
+            for (int x = 0; x < columns; x++) {
+                cells[x*2+1] = getTileCell(x, y);
+                cells[x*2+2] = WALL;
+                if (x+1 < columns && tiles.isOpen(x, y, Direction.RIGHT)) {
+                    cells[x*2+2] = getPassageCell(x, y, x+1, y);
+                }
+            }
+            return;
+        }
+
+        // Rows with even indices only cross the passages up and down, the entrance and the exit
+        for (int x = 0; x < columns; x++) {
+            cells[x*2] = WALL;
+            cells[x*2+1] = WALL;
+            if (y == 0 && x == 0) {
+                cells[1] = getTileCell(0, 0) == PATH ? PATH : FLOOR;
+            } else if (y == rows && x == columns-1) {
+                cells[x*2+1] = getTileCell(x, rows-1) == PATH ? PATH : FLOOR;
+            } else if (y > 0 && y < rows && tiles.isOpen(x, y-1, Direction.DOWN)) {
+                cells[x*2+1] = getPassageCell(x, y-1, x, y);
+            }
+        }
+        cells[columns*2] = WALL;
+    }
+
+    /**
+     * Returns the cell of a tile, based on its type.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @return The cell of the tile.
+     */
+    private byte getTileCell(int x, int y) {
+        TileType type = tiles.getType(x, y);
+        if (type == TileType.WALL) return WALL;
+        if (type == TileType.SOLUTION) return PATH;
+        return FLOOR;
+    }
+
+    /**
+     * Returns the cell of an open passage, which is part of the solution if both of its tiles are,
+     * since two tiles of a shortest path joined by a passage are always consecutive in it, even in
+     * mazes with loops.
+     * @param x1 The column of the first tile.
+     * @param y1 The row of the first tile.
+     * @param x2 The column of the second tile.
+     * @param y2 The row of the second tile.
+     * @return The cell of the passage.
+     */
+    private byte getPassageCell(int x1, int y1, int x2, int y2) {
+        if (getTileCell(x1, y1) == PATH && getTileCell(x2, y2) == PATH) return PATH;
+        return FLOOR;
+    }
+}
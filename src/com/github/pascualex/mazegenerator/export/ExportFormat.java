@@ -0,0 +1,60 @@
+package com.github.pascualex.mazegenerator.export;
+
+import java.awt.Color;
+
+/**
+ * This enumeration defines the formats in which a maze can be exported.
+ * @author Alejandro Pascual
+ */
+public enum ExportFormat {
+
+    /**
+     * Indexed PNG image, with two bits per pixel.
+     */
+    PNG("png"),
+
+    /**
+     * SVG vector image, with the floor drawn as merged runs of cells.
+     */
+    SVG("svg"),
+
+    /**
+     * Plain text, with one character per cell.
+     */
+    ASCII("txt");
+
+    public static final Color FLOOR_COLOR = new Color(30, 30, 35);
+    public static final Color WALL_COLOR = new Color(40, 220, 220);
+    public static final Color PATH_COLOR = new Color(220, 80, 240);
+
+    private final String extension;
+
+    /**
+     * Instantiates an export format given the extension of its files.
+     * @param extension The extension of the files of the format.
+     */
+    private ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Creates an exporter of the format with the colors of the application.
+     * @param tileSide The side of each cell, in pixels, ignored by text formats.
+     * @return The new exporter.
+     */
+    public MazeExporter create(int tileSide) {
+        switch (this) {
+            case PNG: return new PngExporter(tileSide, FLOOR_COLOR, WALL_COLOR, PATH_COLOR);
+            case SVG: return new SvgExporter(tileSide, FLOOR_COLOR, WALL_COLOR, PATH_COLOR);
+            default: return new AsciiExporter();
+        }
+    }
+
+    /**
+     * Returns the extension of the files of the format.
+     * @return The extension of the format, without the dot.
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
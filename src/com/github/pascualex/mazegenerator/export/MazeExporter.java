@@ -0,0 +1,22 @@
+package com.github.pascualex.mazegenerator.export;
+
+import com.github.pascualex.mazegenerator.maze.components.Grid;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * This interface defines a writer of finished mazes into a file format. Exporters write the maze
+ * row by row as they read it, so the memory they use only depends on its width.
+ * @author Alejandro Pascual
+ */
+public interface MazeExporter {
+
+    /**
+     * Writes a maze to an output stream, without closing it.
+     * @param tiles The tiles of the maze.
+     * @param out The output stream to write to.
+     * @throws IOException If the maze can't be written.
+     */
+    void export(Grid tiles, OutputStream out) throws IOException;
+}
@@ -0,0 +1,214 @@
+package com.github.pascualex.mazegenerator.export;
+
+import com.github.pascualex.mazegenerator.maze.components.Grid;
+
+import java.awt.Color;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * This class defines an exporter of mazes as PNG images. The image is indexed, with a palette of
+ * the three colors of the cells and two bits per pixel, and it's compressed as it's written, one
+ * band of pixel rows for each row of cells, so no image of the whole maze is ever in memory.
+ * @author Alejandro Pascual
+ */
+public class PngExporter implements MazeExporter {
+    private static final byte[] SIGNATURE = {
+        (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'
+    };
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final int tileSide;
+    private final Color[] colors;
+
+    /**
+     * Instantiates a PNG exporter given the side of the cells and their colors.
+     * @param tileSide The side of each cell, in pixels.
+     * @param floorColor The color of the floor cells.
+     * @param wallColor The color of the wall cells.
+     * @param pathColor The color of the cells of the solution path.
+     */
+    public PngExporter(int tileSide, Color floorColor, Color wallColor, Color pathColor) {
+        this.tileSide = tileSide;
+        colors = new Color[] {wallColor, floorColor, pathColor};
+    }
+
+    /**
+     * Writes a maze to an output stream as a PNG image, without closing it.
+     * @param tiles The tiles of the maze.
+     * @param out The output stream to write to.
+     * @throws IOException If the maze can't be written.
+     */
+    @Override
+    public void export(Grid tiles, OutputStream out) throws IOException {
+        CellRows cellRows = new CellRows(tiles);
+        long width = (long) cellRows.getWidth()*tileSide;
+        long height = (long) cellRows.getHeight()*tileSide;
+        if (width > Integer.MAX_VALUE || height > Integer.MAX_VALUE) {
+            throw new IOException("The maze is too large for a PNG image");
+        }
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(SIGNATURE);
+
+        // Writes the header, with two bits per pixel indexing the palette
+        byte[] header = new byte[13];
+        putInt(header, 0, (int) width);
+        putInt(header, 4, (int) height);
+        header[8] = 2;
+        header[9] = 3;
+        writeChunk(data, "IHDR", header, header.length);
+
+        // Writes the palette, in the order of the cells
+        byte[] palette = new byte[colors.length*3];
+        for (int i = 0; i < colors.length; i++) {
+            palette[i*3] = (byte) colors[i].getRed();
+            palette[i*3+1] = (byte) colors[i].getGreen();
+            palette[i*3+2] = (byte) colors[i].getBlue();
+        }
+        writeChunk(data, "PLTE", palette, palette.length);
+
+        // Compresses the pixel rows of each row of cells into the data chunks
+        byte[] cells = new byte[cellRows.getWidth()];
+        byte[] scanline = new byte[1+(int) ((width*2+7)/8)];
+        Deflater deflater = new Deflater();
+        DataChunkOutputStream chunks = new DataChunkOutputStream(data);
+        try {
+            DeflaterOutputStream compressed =
+                new DeflaterOutputStream(chunks, deflater, CHUNK_SIZE);
+            for (int row = 0; row < cellRows.getHeight(); row++) {
+                cellRows.getRow(row, cells);
+                packScanline(cells, scanline);
+                for (int k = 0; k < tileSide; k++) compressed.write(scanline);
+            }
+            compressed.finish();
+            chunks.flushChunk();
+        } finally {
+            deflater.end();
+        }
+
+        writeChunk(data, "IEND", new byte[0], 0);
+        data.flush();
+    }
+
+    /**
+     * Packs a row of cells into a scanline with no filter, repeating each cell for the tile side
+     * and storing four pixels per byte, the first one in the highest bits.
+     * @param cells The row of cells.
+     * @param scanline The array where the scanline is stored, including its filter byte.
+     */
+    private void packScanline(byte[] cells, byte[] scanline) {
+        scanline[0] = 0;
+        int pixel = 0;
+        int packed = 0;
+        int position = 1;
+        for (byte cell : cells) {
+            for (int k = 0; k < tileSide; k++) {
+                packed = packed << 2 | cell;
+                if (++pixel%4 == 0) {
+                    scanline[position++] = (byte) packed;
+                    packed = 0;
+                }
+            }
+        }
+        if (pixel%4 != 0) scanline[position] = (byte) (packed << (4-pixel%4)*2);
+    }
+
+    /**
+     * Writes a chunk of the PNG image with its length and checksum.
+     * @param out The output stream to write to.
+     * @param type The type of the chunk, four ASCII letters.
+     * @param content The array with the content of the chunk.
+     * @param length The length of the content.
+     * @throws IOException If the chunk can't be written.
+     */
+    private static void writeChunk(DataOutputStream out, String type, byte[] content, int length)
+        throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(content, 0, length);
+
+        out.writeInt(length);
+        out.write(typeBytes);
+        out.write(content, 0, length);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Stores an int in big-endian order.
+     * @param array The array where the int is stored.
+     * @param offset The position of the first byte.
+     * @param value The value of the int.
+     */
+    private static void putInt(byte[] array, int offset, int value) {
+        array[offset] = (byte) (value >>> 24);
+        array[offset+1] = (byte) (value >>> 16);
+        array[offset+2] = (byte) (value >>> 8);
+        array[offset+3] = (byte) value;
+    }
+
+    /**
+     * This class defines an output stream that splits the compressed pixels into data chunks.
+     */
+    private static class DataChunkOutputStream extends OutputStream {
+        private final DataOutputStream out;
+        private final byte[] buffer;
+        private int size;
+
+        /**
+         * Instantiates a data chunk output stream given the stream of the image.
+         * @param out The output stream of the image.
+         */
+        private DataChunkOutputStream(DataOutputStream out) {
+            this.out = out;
+            buffer = new byte[CHUNK_SIZE];
+            size = 0;
+        }
+
+        /**
+         * Adds a byte to the current chunk.
+         * @param b The byte to add.
+         * @throws IOException If a full chunk can't be written.
+         */
+        @Override
+        public void write(int b) throws IOException {
+            buffer[size++] = (byte) b;
+            if (size == buffer.length) flushChunk();
+        }
+
+        /**
+         * Adds bytes to the current chunk, writing the chunks that fill up.
+         * @param b The array with the bytes.
+         * @param offset The position of the first byte.
+         * @param length The number of bytes.
+         * @throws IOException If a full chunk can't be written.
+         */
+        @Override
+        public void write(byte[] b, int offset, int length) throws IOException {
+            while (length > 0) {
+                int copied = Math.min(length, buffer.length-size);
+                System.arraycopy(b, offset, buffer, size, copied);
+                size += copied;
+                offset += copied;
+                length -= copied;
+                if (size == buffer.length) flushChunk();
+            }
+        }
+
+        /**
+         * Writes the current chunk, if it isn't empty.
+         * @throws IOException If the chunk can't be written.
+         */
+        private void flushChunk() throws IOException {
+            if (size == 0) return;
+
+            writeChunk(out, "IDAT", buffer, size);
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.pascualex.mazegenerator.export;
+
+import com.github.pascualex.mazegenerator.maze.components.Grid;
+
+import java.awt.Color;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class defines an exporter of mazes as SVG images. The walls are a single background
+ * rectangle and the floor and the solution path are one path each, made of the horizontal runs of
+ * consecutive cells of their kind, so the size of the file grows with the number of runs instead
+ * of the number of cells. Each run is a horizontal stroke one cell wide, written relative to the
+ * end of the previous one to keep the numbers short. The coordinates are in cells, scaled to the
+ * tile side by the view box.
+ * @author Alejandro Pascual
+ */
+public class SvgExporter implements MazeExporter {
+    private final int tileSide;
+    private final Color floorColor;
+    private final Color wallColor;
+    private final Color pathColor;
+
+    /**
+     * Instantiates an SVG exporter given the side of the cells and their colors.
+     * @param tileSide The side of each cell, in pixels.
+     * @param floorColor The color of the floor cells.
+     * @param wallColor The color of the wall cells.
+     * @param pathColor The color of the cells of the solution path.
+     */
+    public SvgExporter(int tileSide, Color floorColor, Color wallColor, Color pathColor) {
+        this.tileSide = tileSide;
+        this.floorColor = floorColor;
+        this.wallColor = wallColor;
+        this.pathColor = pathColor;
+    }
+
+    /**
+     * Writes a maze to an output stream as an SVG image, without closing it.
+     * @param tiles The tiles of the maze.
+     * @param out The output stream to write to.
+     * @throws IOException If the maze can't be written.
+     */
+    @Override
+    public void export(Grid tiles, OutputStream out) throws IOException {
+        CellRows cellRows = new CellRows(tiles);
+        int width = cellRows.getWidth();
+        int height = cellRows.getHeight();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + (long) width*tileSide
+                     + "\" height=\"" + (long) height*tileSide + "\" viewBox=\"0 0 " + width + " "
+                     + height + "\" shape-rendering=\"crispEdges\">\n");
+        writer.write("<rect width=\"" + width + "\" height=\"" + height + "\" fill=\""
+                     + toHex(wallColor) + "\"/>\n");
+        writeRuns(writer, cellRows, CellRows.FLOOR, floorColor);
+        writeRuns(writer, cellRows, CellRows.PATH, pathColor);
+        writer.write("</svg>\n");
+        writer.flush();
+    }
+
+    /**
+     * Writes a path with the horizontal runs of the cells of a kind, reading all the rows. The
+     * path starts at the middle of the left side of the first row, so its strokes fill the cells.
+     * @param writer The writer to write to.
+     * @param cellRows The rows of cells of the maze.
+     * @param kind The kind of the cells.
+     * @param color The color of the cells.
+     * @throws IOException If the path can't be written.
+     */
+    private void writeRuns(Writer writer, CellRows cellRows, byte kind, Color color)
+        throws IOException {
+        writer.write("<path fill=\"none\" stroke=\"" + toHex(color) + "\" d=\"M0 .5");
+        byte[] cells = new byte[cellRows.getWidth()];
+        int penX = 0;
+        int penRow = 0;
+        for (int row = 0; row < cellRows.getHeight(); row++) {
+            cellRows.getRow(row, cells);
+            boolean empty = true;
+            for (int x = 0; x < cells.length; x++) {
+                if (cells[x] != kind) continue;
+
+                // Finds the end of the run and writes it as a stroke from the end of the previous one
+                int start = x;
+                while (x+1 < cells.length && cells[x+1] == kind) x++;
+                int length = x-start+1;
+                writer.write("m" + (start-penX) + " " + (row-penRow) + "h" + length);
+                penX = x+1;
+                penRow = row;
+                empty = false;
+            }
+            if (!empty) writer.write('\n');
+        }
+        writer.write("\"/>\n");
+    }
+
+    /**
+     * Returns the hexadecimal notation of a color.
+     * @param color The color.
+     * @return The color as #rrggbb.
+     */
+    private static String toHex(Color color) {
+        return String.format("#%06x", color.getRGB() & 0xFFFFFF);
+    }
+}
@@ -1,20 +1,35 @@
 package com.github.pascualex.mazegenerator.maze;
 
-import com.github.pascualex.mazegenerator.maze.components.Tile;
+import com.github.pascualex.mazegenerator.maze.algorithms.AlgorithmType;
+import com.github.pascualex.mazegenerator.maze.algorithms.Braider;
+import com.github.pascualex.mazegenerator.maze.algorithms.MazeGenerationAlgorithm;
+import com.github.pascualex.mazegenerator.maze.components.CellLayout;
+import com.github.pascualex.mazegenerator.maze.components.Grid;
+import com.github.pascualex.mazegenerator.maze.components.PackedGrid;
 import com.github.pascualex.mazegenerator.maze.components.TileType;
-import com.github.pascualex.mazegenerator.maze.components.Direction;
+import com.github.pascualex.mazegenerator.maze.solving.BreadthFirstPathFinder;
+import com.github.pascualex.mazegenerator.maze.solving.TreeIndex;
 
-import java.util.Stack;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * This class defines the state of the maze, as well as the methods to build it and solve it.
  * @author Alejandro Pascual
  */
 public class Maze {
-    private Tile[][] tiles;
+    private PackedGrid tiles;
+    private CellLayout cellLayout;
+    private long seed;
 
-    private int x;
-    private int y;
+    private AlgorithmType algorithmType;
+    private MazeGenerationAlgorithm algorithm;
+    private ForkJoinPool pool;
+
+    private double deadEndFraction;
+    private double loopFraction;
+    private Braider braider;
+    private boolean braided;
 
     private boolean firstBuildStep;
     private boolean mazeFinished;
@@ -24,44 +39,64 @@ public class Maze {
     private boolean buildingExit;
     private boolean solutionExitBuilt;
 
-    private Stack<Tile> solution;
+    private int[] solution;
+    private int solutionLength;
+    private int solutionPosition;
 
-    private int newX;
-    private int newY;
+    private TreeIndex treeIndex;
 
     /**
      * Instantiates a maze, with the maze finished flag and the solution finished flag set to false,
-     * since they are the ones that may be checked before initializing the maze.
+     * since they are the ones that may be checked before initializing the maze. The maze is built
+     * with the recursive backtracker unless another algorithm is set, and parallel algorithms run
+     * on the common pool unless another pool is set.
      */
     public Maze() {        
+        algorithmType = AlgorithmType.RECURSIVE_BACKTRACKER;
+        pool = ForkJoinPool.commonPool();
+        cellLayout = CellLayout.ROW_MAJOR;
         mazeFinished = false;
         solutionFinished = false;
     }
 
     /**
      * Initialises the tiles and all the flags of the maze to their initial state, resetting the
-     * state of the maze.
+     * state of the maze, with a new random seed.
      * @param columns The new number of columns in the maze.
      * @param rows The new number of rows in the maze.
      */
     public void restart(int columns, int rows) {
-        // Initialises the tiles
-        tiles = new Tile[rows][columns];
-        for (int i = 0; i < tiles.length; i++) {
-            for (int j = 0; j < tiles[i].length; j++) {
-                tiles[i][j] = new Tile();
-            }
+        restart(columns, rows, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Initialises the tiles and all the flags of the maze to their initial state, resetting the
+     * state of the maze. Restarting with the same dimensions and seed always builds the same maze.
+     * @param columns The new number of columns in the maze.
+     * @param rows The new number of rows in the maze.
+     * @param seed The seed from which the maze is built.
+     */
+    public void restart(int columns, int rows, long seed) {
+        // Initialises the tiles, reusing them if the dimensions and the layout haven't changed
+        if (tiles != null && tiles.getColumns() == columns && tiles.getRows() == rows
+            && tiles.getLayout() == cellLayout) {
+            tiles.clear(seed);
+        } else {
+            tiles = new PackedGrid(columns, rows, seed, cellLayout);
         }
+        this.seed = seed;
 
-        // Sets the current tile to the upper left corner
-        x = 0;
-        y = 0;
+        // Prepares the algorithm to build the maze over the tiles
+        algorithm = algorithmType.create(pool);
+        algorithm.restart(tiles, seed);
+        braider = deadEndFraction > 0 || loopFraction > 0
+                  ? new Braider(tiles, seed, deadEndFraction, loopFraction) : null;
 
-        // Sets the current state of the starting tile
-        tiles[y][x].setType(TileType.FOCUS_ENTERING);
-        tiles[y][x].setParentDirection(Direction.UP);
+        // Forgets the index of the previous maze
+        treeIndex = null;
 
         // Initialises all the flags
+        braided = false;
         firstBuildStep = true;
         mazeFinished = false;
         firstSolveStep = true;
@@ -83,140 +118,246 @@ public class Maze {
     }
 
     /**
-     * Based on the state of the current tile and its neighbours, advances one step in the building
-     * process, updating the flags when needed.
+     * Advances one step in the building process of the algorithm and, once it's finished, braids
+     * the maze in a single step and builds the exit of the maze, updating the flags when needed.
      */
     private void buildingStep() {
-        // Gets the current tile
-        Tile tile = tiles[y][x];
-
-        // Checks if the type of the tile is focus entering
-        if (tile.getType() == TileType.FOCUS_ENTERING) {
-            // Updates the type to focus and returns
-            tile.setType(TileType.FOCUS);
+        // Advances the algorithm until it's finished
+        if (!algorithm.getFinished()) {
+            algorithm.step();
             return;
         }
 
-        // Checks if the type of the tile is focus leaving
-        if (tile.getType() == TileType.FOCUS_LEAVING) {  
-            // Updates the type to floor
-            tile.setType(TileType.FLOOR);
-
-            // If the parent is outside the maze, finishes the maze
-            if (newY < 0) {
-                mazeFinished = true;
-                return;
-            } 
-
-            // Sets the next tile and updates its type to focus
-            x = newX;
-            y = newY;
-            tiles[y][x].setType(TileType.FOCUS);
+        // Braids the maze in a single step
+        if (braider != null && !braided) {
+            braid();
             return;
         }
 
-        // Checks if the tile is in the lower right corner
-        if (x == tiles[0].length-1 && y == tiles.length-1) {
-            // If the exit isn't built, builds the exit
-            if (!exitBuilt) {
-                tile.setType(TileType.FLOOR);
-                exitBuilt = true;
-                buildingExit = true;
-                return;
-            } else if (buildingExit) {                
-                tile.setType(TileType.FOCUS);                
-                buildingExit = false;
-                return;
-            }
+        // Builds the exit, focusing it for one step
+        tiles.markDirty(tiles.getColumns()-1, tiles.getRows()-1);
+        if (!exitBuilt) {
+            exitBuilt = true;
+            buildingExit = true;
+        } else {
+            buildingExit = false;
+            mazeFinished = true;
         }
+    }
 
-        // Tries to get a valid new direction
-        Direction direction;
-        while ((direction = tiles[y][x].getDirection()) != null) {
-            // Checks the new tile isn't outside the maze 
-            if (x+direction.getX() < 0) continue;
-            if (x+direction.getX() >= tiles[0].length) continue;          
-            if (y+direction.getY() < 0) continue;
-            if (y+direction.getY() >= tiles.length) continue;
-
-            // Checks the new tile isn't already floor
-            Tile target = tiles[y+direction.getY()][x+direction.getX()];
-            if (target.getType() == TileType.FLOOR) continue;
-
-            // If everything is correct, breaks
-            break;
-        }
-        
-        // If there is no valid new direction, returns to the parent of the tile
-        if (direction == null) {
-            newX = x+tile.getParentDirection().getX();
-            newY = y+tile.getParentDirection().getY();            
-            tile.setType(TileType.FOCUS_LEAVING);
-            return;
-        }
+    /**
+     * Builds the rest of the maze in a single call, skipping the intermediate states that the
+     * building steps go through. The resulting maze is the same that the building steps would have
+     * built from the current state. Won't do anything if the maze is already finished.
+     */
+    public void generateFully() {
+        if (mazeFinished) return;
+        firstBuildStep = false;
 
-        // If there is a valid new direction, advances in that direction
-        x = x+direction.getX();
-        y = y+direction.getY();
+        algorithm.generateFully();
+        if (braider != null && !braided) braid();
 
-        // Sets the parent direction of the new tile
-        Direction opposite = Direction.getOpposite(direction);
-        tiles[y][x].setParentDirection(opposite);
-        tiles[y][x].removeDirection(opposite);
+        // Builds the exit directly in its final state
+        tiles.markDirty(tiles.getColumns()-1, tiles.getRows()-1);
+        exitBuilt = true;
+        buildingExit = false;
+        mazeFinished = true;
+    }
 
-        // Sets the new states of the current tile and the new tile
-        tile.setType(TileType.FLOOR);
-        tiles[y][x].setType(TileType.FOCUS_ENTERING);
+    /**
+     * Removes the chosen fraction of dead ends and opens the chosen fraction of the remaining walls
+     * of the finished maze.
+     */
+    private void braid() {
+        braider.removeDeadEnds();
+        braider.addLoops();
+        braided = true;
     }
 
     /**
-     * Based on the parents directions of the tiles, starting with the lower right tile, finds the
-     * path that connects the entry and the exit and stores it in a stack.
+     * Finds the shortest path that connects the upper left tile and the lower right tile with a
+     * breadth-first search and stores the indices of its tiles, from the entry to the exit.
      */
     private void findSolution() {
-        solution = new Stack<>();
-
-        int solX = tiles[0].length-1;
-        int solY = tiles.length-1;
-        while (solY >= 0) {
-            Tile tile = tiles[solY][solX];
-            solution.push(tile);
-            solX += tile.getParentDirection().getX();
-            solY += tile.getParentDirection().getY();            
-        }
+        int columns = tiles.getColumns();
+        int rows = tiles.getRows();
+        solution = new int[columns*rows];
+        solutionLength = new BreadthFirstPathFinder(tiles).findPath(0, columns*rows-1, solution);
+        solutionPosition = 0;
 
         firstSolveStep = false;
     }
 
     /**
-     * Based on the state of the solution stack, advances one step in the solving process.
+     * Solves the rest of the maze in a single call, skipping the intermediate states that the
+     * solving steps go through. Won't do anything if the maze isn't finished or if the solution is
+     * already finished.
+     */
+    public void solveFully() {
+        if (!mazeFinished || solutionFinished) return;
+        if (firstSolveStep) findSolution();
+
+        // Marks the rest of the path and builds the exit directly in its final state
+        for (; solutionPosition < solutionLength; solutionPosition++) {
+            int i = solution[solutionPosition];
+            tiles.setType(i%tiles.getColumns(), i/tiles.getColumns(), TileType.SOLUTION);
+        }
+        tiles.markDirty(tiles.getColumns()-1, tiles.getRows()-1);
+        solutionExitBuilt = true;
+        solutionFinished = true;
+    }
+
+    /**
+     * Based on the state of the solution path, advances one step in the solving process.
      */
     private void solvingStep() {
-        // If the solution is empty, builds the exit and finishes the solution
-        if (solution.empty()) {
+        // If the whole path is solved, builds the exit and finishes the solution
+        if (solutionPosition >= solutionLength) {
+            tiles.markDirty(tiles.getColumns()-1, tiles.getRows()-1);
             if (!solutionExitBuilt) solutionExitBuilt = true;
             else solutionFinished = true;            
             return;
         }
 
         // Checks the type of the current tile and updates it
-        Tile tile = solution.peek();
-        if (tile.getType() == TileType.FLOOR) {
-            tile.setType(TileType.SOLUTION_ENTERING);
-        } else if (tile.getType() == TileType.SOLUTION_ENTERING) {
-            tile.setType(TileType.SOLUTION);
-            solution.pop();
+        int solX = solution[solutionPosition]%tiles.getColumns();
+        int solY = solution[solutionPosition]/tiles.getColumns();
+        TileType type = tiles.getType(solX, solY);
+        if (type == TileType.FLOOR) {
+            tiles.setType(solX, solY, TileType.SOLUTION_ENTERING);
+        } else if (type == TileType.SOLUTION_ENTERING) {
+            tiles.setType(solX, solY, TileType.SOLUTION);
+            solutionPosition++;
         }
     }
 
     /**
-     * Returns the tiles of the maze.
+     * Returns the number of tiles of the solution path, once it has been found.
+     * @return The length of the solution, or -1 if the exit can't be reached.
+     */
+    public int getSolutionLength() {
+        return solutionLength;
+    }
+
+    /**
+     * Returns a read-only access to the tiles of the maze.
      * @return The tiles of the maze.
      */
-    public Tile[][] getTiles() {
+    public Grid getTiles() {
         return tiles;
     }
 
+    /**
+     * Copies the indices, y*columns+x, of the tiles that changed since the last call and forgets
+     * them. The exit of the maze is considered part of the lower right tile.
+     * @param indices The array where the indices are copied, which must fit
+     *                PackedGrid.DIRTY_CAPACITY indices.
+     * @return The number of tiles that changed, or -1 if the whole maze must be considered changed.
+     */
+    public int takeDirtyTiles(int[] indices) {
+        return tiles.takeDirtyTiles(indices);
+    }
+
+    /**
+     * Returns the index that answers distance and path queries between any two tiles, rooted at
+     * the entrance. It's built the first time it's requested after the maze is finished, and kept
+     * until the next restart. Braided mazes may have loops, so they have no index.
+     * @return The tree index of the maze, or null if the maze isn't finished or is braided.
+     */
+    public TreeIndex getTreeIndex() {
+        if (tiles == null || !mazeFinished || braider != null) return null;
+
+        if (treeIndex == null) treeIndex = new TreeIndex(tiles, 0);
+        return treeIndex;
+    }
+
+    /**
+     * Returns the number of tiles already reached by the algorithm.
+     * @return The number of tiles generated, or 0 if the maze was never restarted.
+     */
+    public int getTilesGenerated() {
+        return tiles != null ? tiles.getBuiltTiles() : 0;
+    }
+
+    /**
+     * Returns the depth of the search of the algorithm, if it builds the maze as a depth-first
+     * search.
+     * @return The depth of the search, or 0 if the algorithm has no depth.
+     */
+    public int getDepth() {
+        return algorithm != null ? algorithm.getDepth() : 0;
+    }
+
+    /**
+     * Sets the algorithm used to build the maze, which will be used from the next restart.
+     * @param algorithmType The type of the new algorithm.
+     */
+    public void setAlgorithmType(AlgorithmType algorithmType) {
+        this.algorithmType = algorithmType;
+    }
+
+    /**
+     * Sets the pool where parallel algorithms build the maze, which will be used from the next
+     * restart.
+     * @param pool The pool where parallel algorithms run their tasks.
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Sets the braiding of the maze, which will be used from the next restart. Once the algorithm
+     * is finished, a fraction of the dead ends are removed and a fraction of the walls left are
+     * opened, so the maze has loops.
+     * @param deadEndFraction The fraction of the dead ends to remove, from 0 to 1.
+     * @param loopFraction The fraction of the walls left to open, from 0 to 1.
+     */
+    public void setBraiding(double deadEndFraction, double loopFraction) {
+        this.deadEndFraction = deadEndFraction;
+        this.loopFraction = loopFraction;
+    }
+
+    /**
+     * Returns if the maze is braided once the algorithm is finished, so it may have loops.
+     * @return If the maze is braided.
+     */
+    public boolean getBraided() {
+        return braider != null;
+    }
+
+    /**
+     * Returns the type of the algorithm used to build the maze.
+     * @return The type of the algorithm.
+     */
+    public AlgorithmType getAlgorithmType() {
+        return algorithmType;
+    }
+
+    /**
+     * Sets the order in which the tiles are stored in memory, which will be used from the next
+     * restart. The layout doesn't change the maze built from a seed.
+     * @param cellLayout The new cell layout.
+     */
+    public void setCellLayout(CellLayout cellLayout) {
+        this.cellLayout = cellLayout;
+    }
+
+    /**
+     * Returns the order in which the tiles are stored in memory from the next restart.
+     * @return The cell layout.
+     */
+    public CellLayout getCellLayout() {
+        return cellLayout;
+    }
+
+    /**
+     * Returns the seed the maze was last restarted with.
+     * @return The seed of the maze.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
     /**
      * Returns the maze finished flag.
      * @return The maze finished flag.
@@ -0,0 +1,154 @@
+package com.github.pascualex.mazegenerator.maze;
+
+import com.github.pascualex.mazegenerator.maze.algorithms.AlgorithmType;
+
+/**
+ * This class defines a command sent to a maze controller, with its type, its parameters and the
+ * moment it was created.
+ * @author Alejandro Pascual
+ */
+public final class MazeCommand {
+    private final MazeCommandType type;
+    private final int columns;
+    private final int rows;
+    private final int stepsPerSecond;
+    private final AlgorithmType algorithmType;
+    private final long creationTime;
+
+    /**
+     * Instantiates a maze command given its type and parameters.
+     * @param type The type of the command.
+     * @param columns The number of columns of the maze, for restart commands.
+     * @param rows The number of rows of the maze, for restart commands.
+     * @param stepsPerSecond The steps per second of the maze, for restart and speed commands.
+     * @param algorithmType The algorithm used to build the maze, for restart commands.
+     */
+    private MazeCommand(MazeCommandType type, int columns, int rows, int stepsPerSecond,
+                        AlgorithmType algorithmType) {
+        this.type = type;
+        this.columns = columns;
+        this.rows = rows;
+        this.stepsPerSecond = stepsPerSecond;
+        this.algorithmType = algorithmType;
+        creationTime = System.nanoTime();
+    }
+
+    /**
+     * Returns a command that restarts the maze with new parameters.
+     * @param columns The new number of columns of the maze.
+     * @param rows The new number of rows of the maze.
+     * @param stepsPerSecond The new steps per second of the maze, 0 meaning as fast as possible.
+     * @param algorithmType The algorithm used to build the maze.
+     * @return The restart command.
+     */
+    public static MazeCommand restart(int columns, int rows, int stepsPerSecond,
+                                      AlgorithmType algorithmType) {
+        return new MazeCommand(MazeCommandType.RESTART, columns, rows, stepsPerSecond,
+                               algorithmType);
+    }
+
+    /**
+     * Returns a command that starts solving the maze.
+     * @return The solve command.
+     */
+    public static MazeCommand solve() {
+        return new MazeCommand(MazeCommandType.SOLVE, 0, 0, 0, null);
+    }
+
+    /**
+     * Returns a command that stops the maze and hides it.
+     * @return The clear command.
+     */
+    public static MazeCommand clear() {
+        return new MazeCommand(MazeCommandType.CLEAR, 0, 0, 0, null);
+    }
+
+    /**
+     * Returns a command that pauses the maze.
+     * @return The pause command.
+     */
+    public static MazeCommand pause() {
+        return new MazeCommand(MazeCommandType.PAUSE, 0, 0, 0, null);
+    }
+
+    /**
+     * Returns a command that resumes the maze.
+     * @return The resume command.
+     */
+    public static MazeCommand resume() {
+        return new MazeCommand(MazeCommandType.RESUME, 0, 0, 0, null);
+    }
+
+    /**
+     * Returns a command that ends the maze thread.
+     * @return The finish command.
+     */
+    public static MazeCommand finish() {
+        return new MazeCommand(MazeCommandType.FINISH, 0, 0, 0, null);
+    }
+
+    /**
+     * Returns a command that changes the steps per second of the maze.
+     * @param stepsPerSecond The new steps per second of the maze, 0 meaning as fast as possible.
+     * @return The speed command.
+     */
+    public static MazeCommand setSpeed(int stepsPerSecond) {
+        return new MazeCommand(MazeCommandType.SET_SPEED, 0, 0, stepsPerSecond, null);
+    }
+
+    /**
+     * Returns a command that paints the maze again for the current viewport of its view.
+     * @return The move view command.
+     */
+    public static MazeCommand moveView() {
+        return new MazeCommand(MazeCommandType.MOVE_VIEW, 0, 0, 0, null);
+    }
+
+    /**
+     * Returns the type of the command.
+     * @return The type of the command.
+     */
+    public MazeCommandType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the number of columns of the command.
+     * @return The number of columns of the command.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of rows of the command.
+     * @return The number of rows of the command.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the steps per second of the command.
+     * @return The steps per second of the command.
+     */
+    public int getStepsPerSecond() {
+        return stepsPerSecond;
+    }
+
+    /**
+     * Returns the algorithm type of the command.
+     * @return The algorithm type of the command.
+     */
+    public AlgorithmType getAlgorithmType() {
+        return algorithmType;
+    }
+
+    /**
+     * Returns the moment the command was created, in nanoseconds of System.nanoTime().
+     * @return The creation time of the command.
+     */
+    public long getCreationTime() {
+        return creationTime;
+    }
+}
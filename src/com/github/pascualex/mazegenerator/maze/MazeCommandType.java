@@ -0,0 +1,48 @@
+package com.github.pascualex.mazegenerator.maze;
+
+/**
+ * This enumeration defines the types of the commands that can be sent to a maze controller.
+ * @author Alejandro Pascual
+ */
+public enum MazeCommandType {
+
+    /**
+     * Restarts the maze with new parameters and starts building it.
+     */
+    RESTART,
+
+    /**
+     * Starts solving the maze, if it's finished and shown.
+     */
+    SOLVE,
+
+    /**
+     * Stops the maze and hides it.
+     */
+    CLEAR,
+
+    /**
+     * Stops advancing the maze until it's resumed.
+     */
+    PAUSE,
+
+    /**
+     * Continues advancing the maze after a pause.
+     */
+    RESUME,
+
+    /**
+     * Ends the maze thread.
+     */
+    FINISH,
+
+    /**
+     * Changes the steps per second of the maze.
+     */
+    SET_SPEED,
+
+    /**
+     * Paints the maze again for the current viewport of its view.
+     */
+    MOVE_VIEW
+}
@@ -1,26 +1,44 @@
 package com.github.pascualex.mazegenerator.maze;
 
 import com.github.pascualex.mazegenerator.maze.Maze;
+import com.github.pascualex.mazegenerator.metrics.MazeMetrics;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * This class defines the logic to enable the main thread to notify requests to the maze and to
- * refresh its view.
+ * refresh its view. The maze advances at a given number of steps per second, independently of the
+ * frame rate at which its view is refreshed. Requests are sent as commands through a lock-free
+ * queue, which the maze thread applies in order at the start of each frame, so none of them is
+ * lost or merged with another. The maze thread parks while there's nothing to do and is unparked
+ * by each new command. The maze thread records its steps, frames and allocations in the metrics of
+ * the controller.
  * @author Alejandro Pascual
  */
 public class MazeController implements Runnable {
+    public static final int FRAME_RATE = 60;
+    private static final long FRAME_TIME = 1000000000L/FRAME_RATE;
+
     private Maze maze;
     private MazeView mazeView;
+    private final MazeMetrics metrics;
 
-    private int tileSide;
-    private int stepDelay;
+    private final ConcurrentLinkedQueue<MazeCommand> commands;
+    private volatile Thread thread;
+    private volatile long commandLatency;
 
-    private int tileSideTemp;
-    private int stepDelayTemp;    
+    private int columns;
+    private int rows;
+    private int stepsPerSecond;
 
-    private boolean pause;
-    private boolean restart;
+    private boolean paused;
     private boolean solve;
     private boolean finish;
+    private boolean viewMoved;
+
+    private long nextFrame;
+    private long stepCredit;
 
     /**
      * Instantiates a maze controller given a maze and a maze view.
@@ -32,152 +50,204 @@ public class MazeController implements Runnable {
         this.maze = maze;
         this.mazeView = mazeView;
 
-        // Sets the default values of the maze and maze controller parameters
-        tileSide = 30;
-        stepDelay = 20;
+        // Sets the default values of the maze controller parameters
+        commands = new ConcurrentLinkedQueue<>();
+        metrics = new MazeMetrics();
+        columns = 12;
+        rows = 12;
+        stepsPerSecond = 50;
 
-        // Initializes the maze and the flags
-        pause = true;
-        restart = true;
-        solve = true;
+        // Initializes the flags
+        paused = false;
+        solve = false;
         finish = false;
+        viewMoved = false;
+    }
+
+    /**
+     * Sends a command to the maze thread, waking it up if it's waiting. It can be called from any
+     * thread.
+     * @param command The command to send.
+     */
+    public void send(MazeCommand command) {
+        commands.add(command);
+        LockSupport.unpark(thread);
     }
 
     /**
-     * Sets the tile side of the maze.
-     * @param tileSide The new tile side of the maze.
+     * Returns the time between the creation of the last applied command and its application.
+     * @return The latency of the last command, in nanoseconds.
      */
-    public void setTileSide(int tileSide) {
-        tileSideTemp = tileSide;
+    public long getCommandLatency() {
+        return commandLatency;
     }
 
     /**
-     * Sets the step delay of the maze controller.
-     * @param stepDelay The new step delay of the maze controller.
+     * Returns the metrics recorded by the maze thread.
+     * @return The metrics of the maze controller.
      */
-    public void setStepDelay(int stepDelay) {
-        stepDelayTemp = stepDelay;
+    public MazeMetrics getMetrics() {
+        return metrics;
     }
 
     /**
-     * Runs a loop that acts based on the flags and the state of the maze.
+     * Runs a loop that applies the commands and advances the maze at the given speed.
      */
     @Override
     public void run() {
+        thread = Thread.currentThread();
+        metrics.recordThread();
+        boolean idle = true;
+
         // Runs while the finish flag is false
         while (!finish) {
-            // Checks if the thread has to pause and if the maze has to restart
-            if (pause) {
-                pauseThread();
+            // Applies the commands sent since the last frame
+            MazeCommand command;
+            while ((command = commands.poll()) != null) apply(command);
+            if (finish) break;
+
+            // If there is nothing to do, repaints the last changes once, or again if the view
+            // moved, and waits for a command
+            if (!getRunning()) {
+                if (!idle || viewMoved) {
+                    mazeView.repaintChanges();
+                    mazeView.repaint();
+                    viewMoved = false;
+                }
+                if (!idle) {
+                    metrics.recordMaze(maze.getTilesGenerated(), maze.getDepth());
+                    metrics.sampleIdle();
+                    idle = true;
+                }
+                LockSupport.park(this);
                 continue;
-            } else if (restart) {
-                restartMaze();
             }
 
-            // Advances one step in the current phase of the maze
-            maze.step();
+            // Starts counting frames from now if the maze was waiting, or else waits until the
+            // next frame is due, unless a command arrives before
+            if (idle) {
+                restartFrames();
+                idle = false;
+            } else {
+                long wait = nextFrame-System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(this, wait);
+                    continue;
+                }
+            }
 
-            // Checks if the maze is building or solving
-            if (!maze.getMazeFinished() || 
-                solve && !maze.getSolutionFinished()) {
-                // If the step delay is higher than 0, repaints and waits
-                if (stepDelay > 0) {
-                    mazeView.repaint();
-                    waitStepDelay();
+            // Advances the steps of the current phase of the maze that belong to this frame,
+            // building or solving it at once if there is no step limit
+            if (stepsPerSecond == 0) {
+                if (!maze.getMazeFinished()) {
+                    maze.generateFully();
+                } else {
+                    maze.solveFully();
                 }
             } else {
-                // Pauses the thread, waiting a restart, clear or solve request                
-                pause = true;
+                stepCredit += stepsPerSecond;
+                long steps = stepCredit/FRAME_RATE;
+                stepCredit %= FRAME_RATE;
+                long k = 0;
+                for (; k < steps && getRunning(); k++) maze.step();
+                metrics.recordSteps(k);
+            }
+            metrics.recordMaze(maze.getTilesGenerated(), maze.getDepth());
+            metrics.sample();
+
+            // If there is a step limit and the maze is still running, repaints and schedules the
+            // next frame
+            if (stepsPerSecond > 0 && getRunning()) {
+                mazeView.repaintChanges();
+                scheduleNextFrame();
             }
         }
     }
 
     /**
-     * Sets the restart flag to true.
-     */
-    public void restart() {
-        restart = true;
-    }
-
-    /**
-     * Sets the solve flag to true if it isn't already true and only if the maze is finished.
-     * @return If the solve flag was set to true or not.
+     * Applies a command to the maze and updates the command latency.
+     * @param command The command to apply.
      */
-    public boolean solve() {
-        if (solve || !maze.getMazeFinished()) return false;
-
-        solve = true;
-        return true;
+    private void apply(MazeCommand command) {
+        switch (command.getType()) {
+            case RESTART:
+                columns = command.getColumns();
+                rows = command.getRows();
+                stepsPerSecond = command.getStepsPerSecond();
+                maze.setAlgorithmType(command.getAlgorithmType());
+                restartMaze();
+                break;
+            case SOLVE:
+                // Only accepts the request if the maze is finished and shown
+                if (mazeView.getPaintMaze() && maze.getMazeFinished()) solve = true;
+                break;
+            case CLEAR:
+                mazeView.setPaintMaze(false);
+                mazeView.repaint();
+                break;
+            case PAUSE:
+                paused = true;
+                break;
+            case RESUME:
+                paused = false;
+                break;
+            case FINISH:
+                finish = true;
+                break;
+            case SET_SPEED:
+                stepsPerSecond = command.getStepsPerSecond();
+                restartFrames();
+                break;
+            case MOVE_VIEW:
+                viewMoved = true;
+                break;
+        }
+        commandLatency = System.nanoTime()-command.getCreationTime();
+        metrics.recordCommandLatency(commandLatency);
     }
 
     /**
-     * Sets the solve flag and the pause flag to true if the first one isn't already true.
-     * @return If the solve flag and the pause flag were set to true or not.
+     * Restarts the maze, updates the parameters and changes the flags.
      */
-    public boolean clear() {
-        if (!mazeView.getPaintMaze()) return false;
+    private void restartMaze() {
+        // Restarts the maze and fits it in the view
+        maze.restart(columns, rows);
+        mazeView.fitView();
 
-        mazeView.setPaintMaze(false);
-        pause = true;
-        return true;
+        // Changes the flags to start building the new maze
+        paused = false;
+        solve = false;
+        mazeView.setPaintMaze(true);
     }
 
     /**
-     * Sets the finish flag to true.
+     * Returns if the maze is shown, isn't paused and is building, or solving when requested.
+     * @return If the maze is running.
      */
-    public void finish() {
-        finish = true;
-    }
+    private boolean getRunning() {
+        if (!mazeView.getPaintMaze() || paused) return false;
 
-    /**
-     * Restarts the maze, updates the parameters and changes the flags.
-     */
-    private void restartMaze() {
-        // Updates the changes made to the maze parameters
-        stepDelay = stepDelayTemp;
-        tileSide = tileSideTemp;
-        mazeView.setTileSide(tileSide);
-
-        // Restarts the maze
-        int columns = mazeView.getWidth()/tileSide-2;
-        columns = columns-columns/2;
-        mazeView.setOffsetX((mazeView.getWidth()-(columns*2+1)*tileSide)/2);
-        int rows = mazeView.getHeight()/tileSide-2;
-        rows = rows-rows/2;
-        mazeView.setOffsetY((mazeView.getHeight()-(rows*2+1)*tileSide)/2);
-        maze.restart(columns, rows);
-        
-        // Changes the flags to avoid unwanted stacked requests
-        restart = false;
-        solve = false;
-        mazeView.setPaintMaze(true);
+        return !maze.getMazeFinished() || solve && !maze.getSolutionFinished();
     }
 
     /**
-     * Pauses the current thread, waiting for an interruption.
+     * Starts counting frames and steps from now.
      */
-    private void pauseThread() {
-        // Repaints before pausing, since run() won't update the changes
-        mazeView.repaint();
-
-        // Pauses the current thread until it's interrupted.
-        try {
-            synchronized (Thread.currentThread()) {
-                Thread.currentThread().wait();
-            }
-        } catch (InterruptedException e) {
-            pause = false;
-        }
+    private void restartFrames() {
+        nextFrame = System.nanoTime();
+        stepCredit = 0;
     }
 
     /**
-     * Waits the step delay, unless it's interrupted.
+     * Sets the moment the next frame is due. If the steps took longer than a whole frame, the late
+     * frames are dropped instead of being run back to back, and recorded in the metrics.
      */
-    private void waitStepDelay() {
-        try {
-            Thread.sleep(stepDelay);
-        } catch (InterruptedException e) {
-            // Untreated
+    private void scheduleNextFrame() {
+        nextFrame += FRAME_TIME;
+        long late = System.nanoTime()-nextFrame;
+        if (late > FRAME_TIME) {
+            metrics.recordFramesDropped(late/FRAME_TIME);
+            nextFrame += late;
         }
     }
 }
\ No newline at end of file
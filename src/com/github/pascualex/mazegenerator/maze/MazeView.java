@@ -1,34 +1,67 @@
 package com.github.pascualex.mazegenerator.maze;
 
-import com.github.pascualex.mazegenerator.maze.components.Tile;
+import com.github.pascualex.mazegenerator.maze.components.Grid;
+import com.github.pascualex.mazegenerator.maze.components.PackedGrid;
 import com.github.pascualex.mazegenerator.maze.components.TileType;
 import com.github.pascualex.mazegenerator.maze.components.Direction;
+import com.github.pascualex.mazegenerator.metrics.MazeMetrics;
 
 import javax.swing.JPanel;
 
 import java.awt.Color;
 import java.awt.Graphics;
-import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * This class defines the graphic representation of the maze.
+ * This class defines the graphic representation of the maze. The maze is seen as an image with a
+ * pixel for each tile, passage and wall, through a viewport that can be zoomed and panned, so the
+ * size of the maze doesn't depend on the size of the view.
+ * <p>
+ * The maze thread keeps a base layer with the whole maze, downsampled to a level of detail where
+ * each of its pixels is the average of a square of pixels of the maze if the maze is too large,
+ * and a window layer with only the visible pixels when the viewport is zoomed in further than the
+ * base layer. Both layers are updated only where the maze changes.
+ * <p>
+ * The maze thread publishes the visible part of the layers as frames, which the event dispatch
+ * thread takes when it paints. A frame is never written while it's published or painted, so the
+ * painting never blocks the maze and never sees a half updated maze. The maze thread never reads
+ * the size of the component, only the view size published whenever its bounds are set.
  * @author Alejandro Pascual
  */
 public class MazeView extends JPanel {
     public static final long serialVersionUID = 0;
 
+    public static final double MIN_SCALE = 1.0/128;
+    public static final double MAX_SCALE = 64;
+    private static final int BASE_PIXELS = 1 << 22;
+
     private Maze maze;
 
-    private Color floorColor;
-    private Color wallColor;
-    private Color focusColor;
+    private int floorColor;
+    private int wallColor;
+    private int focusColor;
+
+    private volatile Viewport viewport;
+    private volatile boolean paintMaze;
+    private volatile int viewWidth;
+    private volatile int viewHeight;
 
-    private int tileSide;
+    private int width;
+    private int height;
+    private Layer base;
+    private Layer window;
+    private Viewport paintedViewport;
+    private final int[] dirtyTiles;
 
-    private int offsetX;
-    private int offsetY;
+    private Frame free;
+    private final AtomicReference<Frame> latest;
+    private final AtomicReference<Frame> spare;
+    private Frame shown;
 
-    private boolean paintMaze;
+    private volatile MazeMetrics metrics;
 
     /**
      * Instantiates a maze view given its maze and colors.
@@ -40,36 +73,100 @@ public class MazeView extends JPanel {
     public MazeView(Maze maze, Color floorColor, Color wallColor, Color focusColor) {
         // Sets the maze and colors
         this.maze = maze;
-        this.floorColor = floorColor;
-        this.wallColor = wallColor;
-        this.focusColor = focusColor;
+        this.floorColor = floorColor.getRGB();
+        this.wallColor = wallColor.getRGB();
+        this.focusColor = focusColor.getRGB();
 
-        // Sets paint maze flag to false
+        // Sets paint maze flag to false and the viewport to the upper left corner
         paintMaze = false;
+        viewport = new Viewport(1, 0, 0);
+
+        dirtyTiles = new int[PackedGrid.DIRTY_CAPACITY];
+        latest = new AtomicReference<>();
+        spare = new AtomicReference<>();
+    }
+
+    /**
+     * Sets the bounds of the view and publishes its size for the thread that modifies the maze.
+     * Every other way of resizing the component ends up here.
+     * @param x The new x coordinate of the view.
+     * @param y The new y coordinate of the view.
+     * @param width The new width of the view.
+     * @param height The new height of the view.
+     */
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        super.setBounds(x, y, width, height);
+        viewWidth = width;
+        viewHeight = height;
     }
 
     /**
-     * Sets the tile side of the maze.
-     * @param tileSide The new tile side of the maze.
+     * Sets the metrics where the time of each paint is recorded.
+     * @param metrics The new metrics of the maze view, or null to stop recording.
      */
-    public void setTileSide(int tileSide) {
-        this.tileSide = tileSide;
+    public void setMetrics(MazeMetrics metrics) {
+        this.metrics = metrics;
     }
 
     /**
-     * Sets the x offset of the maze view.
-     * @param offsetX The new x offset of the maze view.
+     * Fits the whole maze in the view and centers it, with whole screen pixels per pixel of the
+     * maze if they fit. It must be called from the thread that modifies the maze.
      */
-    public void setOffsetX(int offsetX) {
-        this.offsetX = offsetX;
+    public void fitView() {
+        // If the maze has no tiles, returns
+        Grid tiles = maze.getTiles();
+        if (tiles == null) return;
+
+        // Obtains the largest scale at which the maze fits
+        int viewWidth = this.viewWidth;
+        int viewHeight = this.viewHeight;
+        int mazeWidth = tiles.getColumns()*2+1;
+        int mazeHeight = tiles.getRows()*2+1;
+        double scale = Math.min((double) viewWidth/mazeWidth, (double) viewHeight/mazeHeight);
+        if (scale >= 1) scale = Math.floor(scale);
+        scale = Math.max(MIN_SCALE, Math.min(scale, MAX_SCALE));
+
+        // Centers the maze, starting at a whole screen pixel
+        int offsetX = (int) ((viewWidth-mazeWidth*scale)/2);
+        int offsetY = (int) ((viewHeight-mazeHeight*scale)/2);
+        viewport = new Viewport(scale, -offsetX/scale, -offsetY/scale);
+        repaint();
+    }
+
+    /**
+     * Zooms the view around a point, which stays over the same point of the maze. While zoomed in,
+     * the scale is rounded to whole screen pixels per pixel of the maze, so every wall and passage
+     * has the same width.
+     * @param factor The factor by which the scale is multiplied.
+     * @param x The x coordinate of the point in the view.
+     * @param y The y coordinate of the point in the view.
+     */
+    public void zoomView(double factor, int x, int y) {
+        Viewport viewport = this.viewport;
+
+        // Obtains the new scale
+        double scale = viewport.scale*factor;
+        if (scale >= 1) scale = factor > 1 ? Math.ceil(scale) : Math.floor(scale);
+        scale = Math.max(MIN_SCALE, Math.min(scale, MAX_SCALE));
+
+        // Moves the viewport so the point of the maze under the given point doesn't move
+        double mazeX = viewport.x+x/viewport.scale;
+        double mazeY = viewport.y+y/viewport.scale;
+        this.viewport = new Viewport(scale, mazeX-x/scale, mazeY-y/scale);
+        repaint();
     }
 
     /**
-     * Sets the y offset of the maze view.
-     * @param offsetY The new y offset of the maze view.
+     * Pans the view, moving the maze with the given displacement.
+     * @param dx The horizontal displacement, in screen pixels.
+     * @param dy The vertical displacement, in screen pixels.
      */
-    public void setOffsetY(int offsetY) {
-        this.offsetY = offsetY;
+    public void panView(int dx, int dy) {
+        Viewport viewport = this.viewport;
+        this.viewport = new Viewport(viewport.scale, viewport.x-dx/viewport.scale,
+                                     viewport.y-dy/viewport.scale);
+        repaint();
     }
 
     /**
@@ -89,85 +186,520 @@ public class MazeView extends JPanel {
     }
 
     /**
-     * Paints the current state of the maze.
+     * Updates the layers with the tiles that changed since the last call, or whole if too many of
+     * them changed, and the window layer with the visible pixels if the viewport moved. Then
+     * publishes the visible part of the maze and requests a repaint of the areas that changed. It
+     * must be called from the thread that modifies the maze.
+     */
+    public void repaintChanges() {
+        // If the maze has no tiles, returns
+        Grid tiles = maze.getTiles();
+        if (tiles == null) return;
+
+        // Creates a new base layer if the dimensions of the maze changed, at the finest level of
+        // detail that fits in the pixels limit, which is then updated whole
+        int count = maze.takeDirtyTiles(dirtyTiles);
+        if (base == null || width != tiles.getColumns()*2+1 || height != tiles.getRows()*2+1) {
+            width = tiles.getColumns()*2+1;
+            height = tiles.getRows()*2+1;
+            int level = 0;
+            while ((long) getLength(width, level)*getLength(height, level) > BASE_PIXELS) level++;
+            base = new Layer(level, 0, 0, getLength(width, level), getLength(height, level), null);
+            window = null;
+            count = -1;
+        }
+        Viewport viewport = this.viewport;
+        if (count == 0 && viewport == paintedViewport) return;
+
+        // Updates the base layer
+        updateLayer(tiles, base, count);
+
+        // Obtains the visible pixels at the level of detail where the pixels of the maze are at
+        // least as large as the pixels of the screen
+        int level = 0;
+        while ((1 << level)*viewport.scale < 1) level++;
+        double right = viewport.x+viewWidth/viewport.scale;
+        double bottom = viewport.y+viewHeight/viewport.scale;
+        int x0 = clamp((int) Math.floor(viewport.x), width) >> level;
+        int y0 = clamp((int) Math.floor(viewport.y), height) >> level;
+        int x1 = getLength(clamp((int) Math.ceil(right), width), level);
+        int y1 = getLength(clamp((int) Math.ceil(bottom), height), level);
+        int visibleWidth = Math.max(0, x1-x0);
+        int visibleHeight = Math.max(0, y1-y0);
+
+        // If the viewport is zoomed in further than the base layer, the visible pixels are taken
+        // from a window layer, which is painted whole if the visible pixels changed
+        Layer source = base;
+        if (level < base.level) {
+            if (window == null || window.level != level || window.x != x0 || window.y != y0
+                || window.width != visibleWidth || window.height != visibleHeight) {
+                window = new Layer(level, x0, y0, visibleWidth, visibleHeight, window);
+                updateLayer(tiles, window, -1);
+            } else {
+                updateLayer(tiles, window, count);
+            }
+            source = window;
+        } else {
+            window = null;
+        }
+
+        // Publishes the visible pixels and repaints the areas that changed, or everything if the
+        // viewport moved or too many tiles changed
+        publish(source, level, x0, y0, visibleWidth, visibleHeight);
+        if (count == -1 || viewport != paintedViewport) {
+            paintedViewport = viewport;
+            repaint();
+            return;
+        }
+        int columns = tiles.getColumns();
+        for (int k = 0; k < count; k++) {
+            repaintTile(viewport, level, dirtyTiles[k]%columns, dirtyTiles[k]/columns);
+        }
+    }
+
+    /**
+     * Updates the pixels of a layer with the tiles that changed, or whole if too many of them
+     * changed.
+     * @param tiles The tiles of the maze.
+     * @param layer The layer to update.
+     * @param count The number of tiles that changed, or -1 if the whole maze changed.
+     */
+    private void updateLayer(Grid tiles, Layer layer, int count) {
+        // Updates every pixel of the layer
+        if (count == -1) {
+            for (int i = 0; i < layer.height; i++) {
+                for (int j = 0; j < layer.width; j++) {
+                    layer.pixels[i*layer.width+j] = getColor(tiles, layer.level, layer.x+j,
+                                                             layer.y+i);
+                }
+            }
+            return;
+        }
+
+        // Updates the pixels of each tile together with the passages around it, skipping the tiles
+        // whose pixels were just updated by the previous tile, which is common at coarse levels
+        int columns = tiles.getColumns();
+        int lastI0 = -1;
+        int lastJ0 = -1;
+        int lastI1 = -1;
+        int lastJ1 = -1;
+        for (int k = 0; k < count; k++) {
+            int x = dirtyTiles[k]%columns*2;
+            int y = dirtyTiles[k]/columns*2;
+            int i0 = Math.max(y >> layer.level, layer.y);
+            int i1 = Math.min((y+2) >> layer.level, layer.y+layer.height-1);
+            int j0 = Math.max(x >> layer.level, layer.x);
+            int j1 = Math.min((x+2) >> layer.level, layer.x+layer.width-1);
+            if (i0 == lastI0 && j0 == lastJ0 && i1 == lastI1 && j1 == lastJ1) continue;
+            lastI0 = i0;
+            lastJ0 = j0;
+            lastI1 = i1;
+            lastJ1 = j1;
+            for (int i = i0; i <= i1; i++) {
+                for (int j = j0; j <= j1; j++) {
+                    layer.pixels[(i-layer.y)*layer.width+j-layer.x] = getColor(tiles, layer.level,
+                                                                               j, i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the visible pixels into a frame that isn't in use and publishes it, replacing the
+     * previous one if it wasn't taken yet, which can then be reused. If the layer has a finer level
+     * of detail than the visible pixels, each visible pixel is the average of the pixels of the
+     * layer it covers.
+     * @param layer The layer that contains the visible pixels.
+     * @param level The level of detail of the visible pixels.
+     * @param x The first visible column, at the level of detail.
+     * @param y The first visible row, at the level of detail.
+     * @param width The number of visible columns.
+     * @param height The number of visible rows.
+     */
+    private void publish(Layer layer, int level, int x, int y, int width, int height) {
+        // Obtains a frame that isn't in use, creating a new one if there are none large enough
+        Frame frame = free;
+        free = null;
+        if (frame == null) frame = spare.getAndSet(null);
+        if (frame == null || frame.image.getWidth() < width || frame.image.getHeight() < height) {
+            frame = new Frame(Math.max(width, viewWidth+2), Math.max(height, viewHeight+2));
+        }
+
+        // Copies the visible pixels, downsampling them if needed
+        int stride = frame.image.getWidth();
+        int factor = level-layer.level;
+        for (int i = 0; i < height; i++) {
+            if (factor == 0) {
+                System.arraycopy(layer.pixels, (y+i-layer.y)*layer.width+x-layer.x, frame.pixels,
+                                 i*stride, width);
+                continue;
+            }
+            for (int j = 0; j < width; j++) {
+                frame.pixels[i*stride+j] = getAverage(layer, (x+j) << factor, (y+i) << factor,
+                                                      1 << factor);
+            }
+        }
+
+        // Sets the layout of the frame and publishes it
+        frame.width = width;
+        frame.height = height;
+        frame.mazeX = x << level;
+        frame.mazeY = y << level;
+        frame.pixelSide = 1 << level;
+        free = latest.getAndSet(frame);
+    }
+
+    /**
+     * Requests a repaint of the area of the view where a tile and the passages around it are.
+     * @param viewport The viewport of the view.
+     * @param level The level of detail of the visible pixels.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     */
+    private void repaintTile(Viewport viewport, int level, int x, int y) {
+        int mazeX = (x*2 >> level) << level;
+        int mazeY = (y*2 >> level) << level;
+        int side = ((((x*2+2) >> level)+1) << level)-mazeX;
+        int screenX = (int) Math.floor((mazeX-viewport.x)*viewport.scale);
+        int screenY = (int) Math.floor((mazeY-viewport.y)*viewport.scale);
+        int screenSide = (int) Math.ceil(side*viewport.scale)+1;
+        repaint(screenX, screenY, screenSide, screenSide);
+    }
+
+    /**
+     * Returns the color of a pixel at a level of detail, which is the average of the colors of the
+     * pixels of the maze it covers.
+     * @param tiles The tiles of the maze.
+     * @param level The level of detail.
+     * @param x The column of the pixel, at the level of detail.
+     * @param y The row of the pixel, at the level of detail.
+     * @return The color of the pixel.
+     */
+    private int getColor(Grid tiles, int level, int x, int y) {
+        if (level == 0) return getPixel(tiles, x, y);
+
+        int x0 = x << level;
+        int y0 = y << level;
+        int x1 = Math.min(x0+(1 << level), width);
+        int y1 = Math.min(y0+(1 << level), height);
+        int red = 0;
+        int green = 0;
+        int blue = 0;
+        for (int i = y0; i < y1; i++) {
+            for (int j = x0; j < x1; j++) {
+                int color = getPixel(tiles, j, i);
+                red += (color >> 16) & 0xFF;
+                green += (color >> 8) & 0xFF;
+                blue += color & 0xFF;
+            }
+        }
+        return getColor(red, green, blue, (x1-x0)*(y1-y0));
+    }
+
+    /**
+     * Returns the average color of a square of pixels of a layer, ignoring the part of the square
+     * outside the layer. Each pixel is weighted by the number of pixels of the maze it covers,
+     * which is smaller for the pixels at the right and bottom borders of the maze.
+     * @param layer The layer of the pixels.
+     * @param x The first column of the square.
+     * @param y The first row of the square.
+     * @param side The side of the square.
+     * @return The average color of the pixels.
+     */
+    private int getAverage(Layer layer, int x, int y, int side) {
+        int x1 = Math.min(x+side, layer.x+layer.width);
+        int y1 = Math.min(y+side, layer.y+layer.height);
+        int red = 0;
+        int green = 0;
+        int blue = 0;
+        int count = 0;
+        for (int i = y; i < y1; i++) {
+            int rows = Math.min((i+1) << layer.level, height)-(i << layer.level);
+            for (int j = x; j < x1; j++) {
+                int weight = rows*(Math.min((j+1) << layer.level, width)-(j << layer.level));
+                int color = layer.pixels[(i-layer.y)*layer.width+j-layer.x];
+                red += ((color >> 16) & 0xFF)*weight;
+                green += ((color >> 8) & 0xFF)*weight;
+                blue += (color & 0xFF)*weight;
+                count += weight;
+            }
+        }
+        return getColor(red, green, blue, count);
+    }
+
+    /**
+     * Returns the opaque color with the average of the given channels.
+     * @param red The sum of the red channels.
+     * @param green The sum of the green channels.
+     * @param blue The sum of the blue channels.
+     * @param count The number of colors summed.
+     * @return The average color.
+     */
+    private static int getColor(int red, int green, int blue, int count) {
+        return 0xFF000000 | (red/count) << 16 | (green/count) << 8 | blue/count;
+    }
+
+    /**
+     * Returns the color of a pixel of the maze, which is a tile if both coordinates are odd, a
+     * passage if only one of them is odd, or a wall.
+     * @param tiles The tiles of the maze.
+     * @param x The column of the pixel.
+     * @param y The row of the pixel.
+     * @return The color of the pixel.
+     */
+    private int getPixel(Grid tiles, int x, int y) {
+        if ((y & 1) == 1) {
+            if ((x & 1) == 1) return getTileColor(tiles, x >> 1, y >> 1);
+            return getRightPassageColor(tiles, (x >> 1)-1, y >> 1);
+        }
+        if ((x & 1) == 1) return getDownPassageColor(tiles, x >> 1, (y >> 1)-1);
+        return wallColor;
+    }
+
+    /**
+     * Returns the color of a tile, based on its type.
+     * @param tiles The tiles of the maze.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @return The color of the tile.
+     */
+    private int getTileColor(Grid tiles, int x, int y) {
+        TileType type = tiles.getType(x, y);
+        if (type == TileType.WALL || type == TileType.FOCUS_ENTERING) return wallColor;
+        if (type == TileType.FOCUS || type == TileType.SOLUTION) return focusColor;
+        return floorColor;
+    }
+
+    /**
+     * Returns the color of the passage between a tile and the one to its right. An open passage is
+     * part of the solution if both tiles are, and the path of a focused tile to its parent is
+     * painted over it, the one of the right tile over the one of the left tile.
+     * @param tiles The tiles of the maze.
+     * @param x The column of the left tile, which can be -1 for the left border.
+     * @param y The row of the tiles.
+     * @return The color of the passage.
+     */
+    private int getRightPassageColor(Grid tiles, int x, int y) {
+        if (x < 0) return wallColor;
+        boolean last = x+1 == tiles.getColumns();
+        TileType type = tiles.getType(x, y);
+        TileType rightType = last ? TileType.WALL : tiles.getType(x+1, y);
+
+        int color = wallColor;
+        if (type != TileType.WALL && !last && tiles.isOpen(x, y, Direction.RIGHT)) {
+            color = isSolution(type) && isSolution(rightType) ? focusColor : floorColor;
+        }
+        if (isFocused(type) && tiles.getParentDirection(x, y) == Direction.RIGHT) {
+            color = getParentColor(type);
+        }
+        if (isFocused(rightType) && tiles.getParentDirection(x+1, y) == Direction.LEFT) {
+            color = getParentColor(rightType);
+        }
+        return color;
+    }
+
+    /**
+     * Returns the color of the passage between a tile and the one below it. An open passage is
+     * part of the solution if both tiles are, and the path of a focused tile to its parent is
+     * painted over it, the one of the lower tile over the one of the upper tile. The entry of the
+     * maze is the path of the upper left tile to its parent, and the exit of the maze is painted
+     * over all of them.
+     * @param tiles The tiles of the maze.
+     * @param x The column of the tiles.
+     * @param y The row of the upper tile, which can be -1 for the top border.
+     * @return The color of the passage.
+     */
+    private int getDownPassageColor(Grid tiles, int x, int y) {
+        int color = wallColor;
+        if (y < 0) {
+            // Checks if the passage is the entry of the maze and it's built
+            TileType type = tiles.getType(x, 0);
+            if (x == 0 && type != TileType.WALL && tiles.getParentDirection(x, 0) == Direction.UP) {
+                color = getParentColor(type);
+            }
+        } else if (y+1 < tiles.getRows()) {
+            TileType type = tiles.getType(x, y);
+            TileType downType = tiles.getType(x, y+1);
+            if (type != TileType.WALL && tiles.isOpen(x, y, Direction.DOWN)) {
+                color = isSolution(type) && isSolution(downType) ? focusColor : floorColor;
+            }
+            if (isFocused(type) && tiles.getParentDirection(x, y) == Direction.DOWN) {
+                color = getParentColor(type);
+            }
+            if (isFocused(downType) && tiles.getParentDirection(x, y+1) == Direction.UP) {
+                color = getParentColor(downType);
+            }
+        }
+
+        // Checks if the passage is the exit of the maze and it's built
+        if (x == tiles.getColumns()-1 && y == tiles.getRows()-1 && maze.getExitBuilt()) {
+            if (maze.getBuildingExit() || maze.getSolutionExitBuilt()) color = focusColor;
+            else color = floorColor;
+        }
+        return color;
+    }
+
+    /**
+     * Returns if a tile is part of the solution path, even if it's still being entered.
+     * @param type The type of the tile.
+     * @return If the tile is part of the solution.
+     */
+    private static boolean isSolution(TileType type) {
+        return type == TileType.SOLUTION || type == TileType.SOLUTION_ENTERING;
+    }
+
+    /**
+     * Returns if a tile is focused by the algorithm, so its path to its parent is painted even if
+     * the passage isn't open yet.
+     * @param type The type of the tile.
+     * @return If the tile is focused.
+     */
+    private static boolean isFocused(TileType type) {
+        return type == TileType.FOCUS || type == TileType.FOCUS_ENTERING
+               || type == TileType.FOCUS_LEAVING;
+    }
+
+    /**
+     * Returns the color of the path between a tile and its parent, based on the type of the tile.
+     * @param type The type of the tile.
+     * @return The color of the path to its parent.
+     */
+    private int getParentColor(TileType type) {
+        if (type == TileType.FLOOR || type == TileType.FOCUS) return floorColor;
+        return focusColor;
+    }
+
+    /**
+     * Returns the number of pixels a length of the maze takes at a level of detail.
+     * @param length The length, in pixels of the maze.
+     * @param level The level of detail.
+     * @return The length at the level of detail.
+     */
+    private static int getLength(int length, int level) {
+        return (length+(1 << level)-1) >> level;
+    }
+
+    /**
+     * Returns a value limited to the range from 0 to a maximum.
+     * @param value The value to limit.
+     * @param max The maximum of the range.
+     * @return The limited value.
+     */
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, max));
+    }
+
+    /**
+     * Paints the current state of the maze, placing the latest frame through the current viewport,
+     * so the maze follows the zoom and the pan even before the next frame is published.
      * @param g The graphics in which the maze will be painted.
      */
     @Override
     protected void paintComponent(Graphics g) {
         // Prints the background
+        long start = System.nanoTime();
         super.paintComponent(g);
 
-        // If the paint maze flag is false, returns
-        if (!paintMaze) return;
+        // Takes the latest frame if there is a new one, leaving the shown one to be reused
+        Frame frame = latest.getAndSet(null);
+        if (frame != null) {
+            if (shown != null) spare.set(shown);
+            shown = frame;
+        }
 
-        // If the maze has no tiles, returns
-        Tile[][] tiles = maze.getTiles();
-        if (tiles == null) return;
+        // If the paint maze flag is false or no frame was published yet, returns
+        if (!paintMaze || shown == null) return;
 
-        // Casts the graphics into 2d graphics
-        Graphics2D g2d = (Graphics2D) g;
-        
-        // Prints the wall background
-        g2d.setColor(wallColor);
-        int width = (tiles[0].length*2+1)*tileSide;
-        int height = (tiles.length*2+1)*tileSide;
-        g2d.fillRect(offsetX, offsetY, width, height);
-
-        // Checks all the tiles and prints them if they aren't walls
-        g2d.setColor(floorColor);
-        for (int i = 0; i < tiles.length; i++) {
-            for (int j = 0; j < tiles[i].length; j++) {
-                // If a tile is null, aborts the process
-                if (tiles[i][j] == null) return;
-
-                // Checks if the tile is a wall
-                TileType type = tiles[i][j].getType();
-                if (type != TileType.WALL) {
-                    // Selects the colors based on the type of the tile
-                    Color parentColor;
-                    if (type == TileType.FLOOR) {
-                        g2d.setColor(floorColor);
-                        parentColor = floorColor;
-                    } else if (type == TileType.FOCUS) {
-                        g2d.setColor(focusColor);
-                        parentColor = floorColor;
-                    } else if (type == TileType.SOLUTION) {
-                        g2d.setColor(focusColor);
-                        parentColor = focusColor;
-                    } else if (type == TileType.FOCUS_ENTERING) {
-                        g2d.setColor(wallColor);
-                        parentColor = focusColor;
-                    } else {
-                        g2d.setColor(floorColor);
-                        parentColor = focusColor;
-                    }
-
-                    // Prints the tile on its position
-                    int x = offsetX+tileSide+j*tileSide*2;
-                    int y = offsetY+tileSide+i*tileSide*2;
-                    g2d.fillRect(x, y, tileSide, tileSide);
-
-                    // Prints the path to the parent of the tile on its position
-                    g2d.setColor(parentColor);
-                    Direction direction = tiles[i][j].getParentDirection();
-                    x = offsetX+(1+direction.getX())*tileSide+j*tileSide*2;
-                    y = offsetY+(1+direction.getY())*tileSide+i*tileSide*2;           
-                    g2d.fillRect(x, y, tileSide, tileSide);
-                }
-            }
+        // Prints the used part of the image of the frame, scaled by the viewport
+        Viewport viewport = this.viewport;
+        double side = shown.pixelSide*viewport.scale;
+        double x = (shown.mazeX-viewport.x)*viewport.scale;
+        double y = (shown.mazeY-viewport.y)*viewport.scale;
+        g.drawImage(shown.image, (int) Math.round(x), (int) Math.round(y),
+                    (int) Math.round(x+shown.width*side), (int) Math.round(y+shown.height*side),
+                    0, 0, shown.width, shown.height, null);
+
+        // Records the time of the paint
+        MazeMetrics metrics = this.metrics;
+        if (metrics != null) metrics.recordPaint(System.nanoTime()-start);
+    }
+
+    /**
+     * This class defines the part of the maze shown by the view, with the number of screen pixels
+     * per pixel of the maze and the coordinates of the maze at the upper left corner of the view.
+     */
+    private static class Viewport {
+        private final double scale;
+        private final double x;
+        private final double y;
+
+        /**
+         * Instantiates a viewport given its scale and position.
+         * @param scale The number of screen pixels per pixel of the maze.
+         * @param x The column of the maze at the left side of the view.
+         * @param y The row of the maze at the top side of the view.
+         */
+        private Viewport(double scale, double x, double y) {
+            this.scale = scale;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * This class defines a rectangle of the pixels of the maze at a level of detail, where each
+     * pixel covers a square of pixels of the maze whose side is 2 to the power of the level.
+     */
+    private static class Layer {
+        private final int level;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+        private final int[] pixels;
+
+        /**
+         * Instantiates a layer given its level of detail and rectangle, reusing the pixels of an
+         * old layer if they are enough.
+         * @param level The level of detail of the layer.
+         * @param x The first column of the layer, at the level of detail.
+         * @param y The first row of the layer, at the level of detail.
+         * @param width The number of columns of the layer.
+         * @param height The number of rows of the layer.
+         * @param old The old layer whose pixels can be reused, or null.
+         */
+        private Layer(int level, int x, int y, int width, int height, Layer old) {
+            this.level = level;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            if (old != null && old.pixels.length >= width*height) pixels = old.pixels;
+            else pixels = new int[width*height];
         }
+    }
+
+    /**
+     * This class defines a published copy of the visible pixels of the maze and their layout.
+     */
+    private static class Frame {
+        private final BufferedImage image;
+        private final int[] pixels;
 
-        // Checks if the exit of the maze is built
-        if (maze.getExitBuilt()) {
-            // Selects the color based on the state of the exit
-            if (maze.getBuildingExit()) g2d.setColor(focusColor);
-            else if (maze.getSolutionExitBuilt()) g2d.setColor(focusColor);
-            else g2d.setColor(floorColor);
+        private int width;
+        private int height;
+        private int mazeX;
+        private int mazeY;
+        private int pixelSide;
 
-            // Prints the exit on its position
-            int x = offsetX+tileSide+(tiles[0].length-1)*tileSide*2;
-            int y = offsetY+(tiles.length)*tileSide*2;  
-            g2d.fillRect(x, y, tileSide, tileSide);
+        /**
+         * Instantiates a frame given the dimensions of its image.
+         * @param width The width of the image, in pixels.
+         * @param height The height of the image, in pixels.
+         */
+        private Frame(int width, int height) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,112 @@
+package com.github.pascualex.mazegenerator.maze.algorithms;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This enumeration defines the available maze generation algorithms.
+ * @author Alejandro Pascual
+ */
+public enum AlgorithmType {
+
+    /**
+     * Depth-first search that backtracks when it runs out of directions.
+     */
+    RECURSIVE_BACKTRACKER("Backtracker", 0),
+
+    /**
+     * Depth-first search over blocks of tiles built in parallel and then joined.
+     */
+    PARALLEL_BACKTRACKER("Backtracker (parallel)", 1),
+
+    /**
+     * Randomized Kruskal's algorithm, joining sets of tiles through the walls in random order.
+     */
+    KRUSKAL("Kruskal", 2),
+
+    /**
+     * Randomized Prim's algorithm, growing the maze from a frontier of tiles.
+     */
+    PRIM("Prim", 3),
+
+    /**
+     * Wilson's algorithm, adding loop-erased random walks to the maze.
+     */
+    WILSON("Wilson", 4),
+
+    /**
+     * Eller's algorithm, building the maze row by row.
+     */
+    ELLER("Eller", 5),
+
+    /**
+     * Eller's algorithm, generated as a stream of rows that are received one by one.
+     */
+    STREAMED_ELLER("Eller (streamed)", 6),
+
+    /**
+     * Sidewinder algorithm, building the maze row by row with runs of tiles.
+     */
+    SIDEWINDER("Sidewinder", 7);
+
+    private final String name;
+    private final int fileCode;
+
+    /**
+     * Instantiates an algorithm type given its name and its code in maze files.
+     * @param name The name of the algorithm type.
+     * @param fileCode The code that identifies the algorithm type in maze files, which must never
+     *                 change once files are saved with it.
+     */
+    private AlgorithmType(String name, int fileCode) {
+        this.name = name;
+        this.fileCode = fileCode;
+    }
+
+    /**
+     * Returns the code that identifies the algorithm type in maze files, which doesn't depend on
+     * the order in which the types are declared.
+     * @return The file code of the algorithm type.
+     */
+    public int getFileCode() {
+        return fileCode;
+    }
+
+    /**
+     * Returns the algorithm type identified by a code in maze files.
+     * @param fileCode The file code of the algorithm type.
+     * @return The algorithm type, or null if no type has the code.
+     */
+    public static AlgorithmType fromFileCode(int fileCode) {
+        for (AlgorithmType algorithmType : values()) {
+            if (algorithmType.fileCode == fileCode) return algorithmType;
+        }
+        return null;
+    }
+
+    /**
+     * Creates a new instance of the algorithm.
+     * @param pool The pool where the algorithm runs its parallel tasks, if it has any.
+     * @return The new instance of the algorithm.
+     */
+    public MazeGenerationAlgorithm create(ForkJoinPool pool) {
+        switch (this) {
+            case PARALLEL_BACKTRACKER: return new ParallelBacktrackerAlgorithm(pool);
+            case KRUSKAL: return new KruskalAlgorithm();
+            case PRIM: return new PrimAlgorithm();
+            case WILSON: return new WilsonAlgorithm();
+            case ELLER: return new EllerAlgorithm();
+            case STREAMED_ELLER: return new StreamedEllerAlgorithm();
+            case SIDEWINDER: return new SidewinderAlgorithm();
+            default: return new RecursiveBacktrackerAlgorithm();
+        }
+    }
+
+    /**
+     * Returns the name of the algorithm type.
+     * @return The name of the algorithm type.
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+}
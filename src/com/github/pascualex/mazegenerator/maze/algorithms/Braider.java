@@ -0,0 +1,159 @@
+package com.github.pascualex.mazegenerator.maze.algorithms;
+
+import com.github.pascualex.mazegenerator.maze.components.Direction;
+import com.github.pascualex.mazegenerator.maze.components.PackedGrid;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class defines the braiding of a finished maze, which opens extra passages so the maze has
+ * loops and fewer dead ends. Both passes only open passages, so every tile keeps its parent and the
+ * parent directions still form a spanning tree, and both take linear time over the grid.
+ * @author Alejandro Pascual
+ */
+public class Braider {
+    private final PackedGrid tiles;
+    private final int columns;
+    private final int rows;
+    private final SplittableRandom random;
+    private final double deadEndFraction;
+    private final double loopFraction;
+
+    /**
+     * Instantiates a braider over the given tiles.
+     * @param tiles The tiles of a finished maze.
+     * @param seed The seed of the maze.
+     * @param deadEndFraction The fraction of the dead ends to remove, from 0 to 1.
+     * @param loopFraction The fraction of the walls left to open, from 0 to 1.
+     */
+    public Braider(PackedGrid tiles, long seed, double deadEndFraction, double loopFraction) {
+        this.tiles = tiles;
+        this.deadEndFraction = deadEndFraction;
+        this.loopFraction = loopFraction;
+        columns = tiles.getColumns();
+        rows = tiles.getRows();
+
+        // Splits the random generator, so it's independent from the one of the algorithm
+        random = new SplittableRandom(seed).split();
+    }
+
+    /**
+     * Removes a fraction of the dead ends of the maze, in random order. Each dead end is joined to
+     * a random neighbour, preferring the ones that are dead ends too, so both are removed at once.
+     * Opening passages never creates dead ends, so the worklist of the initial dead ends is enough
+     * and each of them is visited once.
+     * @return The number of dead ends removed.
+     */
+    public int removeDeadEnds() {
+        // Collects the indices of the dead ends into the worklist
+        int count = 0;
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < columns; x++) {
+                if (isDeadEnd(x, y)) count++;
+            }
+        }
+        int[] deadEnds = new int[count];
+        int size = 0;
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < columns; x++) {
+                if (isDeadEnd(x, y)) deadEnds[size++] = y*columns+x;
+            }
+        }
+
+        // Takes the dead ends in random order, shuffling only the ones taken
+        int target = (int) Math.round(deadEndFraction*count);
+        int removed = 0;
+        for (int k = 0; k < count && removed < target; k++) {
+            int swap = k+random.nextInt(count-k);
+            int i = deadEnds[swap];
+            deadEnds[swap] = deadEnds[k];
+            deadEnds[k] = i;
+
+            // Skips the dead ends already removed by joining them to a previous one
+            int x = i%columns;
+            int y = i/columns;
+            if (!isDeadEnd(x, y)) continue;
+
+            Direction direction = Direction.fromBit(getJoinBit(x, y));
+            if (direction == Direction.NONE) continue;
+            boolean joinsDeadEnd = isDeadEnd(x+direction.getX(), y+direction.getY());
+            tiles.carve(x, y, direction);
+            removed += joinsDeadEnd ? 2 : 1;
+        }
+        return removed;
+    }
+
+    /**
+     * Opens a fraction of the walls left between neighbour tiles, chosen at random, adding loops to
+     * the maze.
+     * @return The number of walls opened.
+     */
+    public int addLoops() {
+        if (loopFraction <= 0) return 0;
+
+        // Checks the walls to the right and below each tile, so each wall is checked once
+        int right = Direction.RIGHT.getBit();
+        int down = Direction.DOWN.getBit();
+        int opened = 0;
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < columns; x++) {
+                int closed = ~tiles.getOpenMask(x, y) & getInsideMask(x, y);
+                if ((closed & right) != 0 && random.nextDouble() < loopFraction) {
+                    tiles.carve(x, y, Direction.RIGHT);
+                    opened++;
+                }
+                if ((closed & down) != 0 && random.nextDouble() < loopFraction) {
+                    tiles.carve(x, y, Direction.DOWN);
+                    opened++;
+                }
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * Returns if a tile is a dead end, with a single passage.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @return If the tile is a dead end.
+     */
+    private boolean isDeadEnd(int x, int y) {
+        return Integer.bitCount(tiles.getOpenMask(x, y)) == 1;
+    }
+
+    /**
+     * Returns the mask of the directions in which a tile has a neighbour inside the grid.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @return The mask of the directions of the neighbours.
+     */
+    private int getInsideMask(int x, int y) {
+        return (y > 0 ? Direction.UP.getBit() : 0) | (x+1 < columns ? Direction.RIGHT.getBit() : 0)
+               | (y+1 < rows ? Direction.DOWN.getBit() : 0) | (x > 0 ? Direction.LEFT.getBit() : 0);
+    }
+
+    /**
+     * Returns the bit of a random direction in which a dead end can be joined to a neighbour,
+     * preferring the neighbours that are dead ends too.
+     * @param x The column of the dead end.
+     * @param y The row of the dead end.
+     * @return The bit of the direction, or 0 if all the neighbours are already joined.
+     */
+    private int getJoinBit(int x, int y) {
+        // Splits the walls to the neighbours inside the grid by the neighbours that are dead ends
+        int closed = ~tiles.getOpenMask(x, y) & getInsideMask(x, y);
+        int deadEnds = 0;
+        for (int rest = closed; rest != 0; rest &= rest-1) {
+            Direction direction = Direction.fromBit(rest & -rest);
+            if (isDeadEnd(x+direction.getX(), y+direction.getY())) deadEnds |= rest & -rest;
+        }
+
+        // Drops a random number of the lowest candidates and takes the next one
+        int candidates = deadEnds != 0 ? deadEnds : closed;
+        if (candidates == 0) return 0;
+        for (int skip = random.nextInt(Integer.bitCount(candidates)); skip > 0; skip--) {
+            candidates &= candidates-1;
+        }
+        return candidates & -candidates;
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.pascualex.mazegenerator.maze.algorithms;
+
+import com.github.pascualex.mazegenerator.maze.components.Direction;
+import com.github.pascualex.mazegenerator.maze.components.PackedGrid;
+import com.github.pascualex.mazegenerator.maze.components.TileType;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class defines Eller's algorithm. The maze is built row by row, joining at random adjacent
+ * tiles of different sets and then opening at least one passage down from each set. Only the sets
+ * of the current row are kept, so the memory used is proportional to the number of columns.
+ * @author Alejandro Pascual
+ */
+public class EllerAlgorithm implements MazeGenerationAlgorithm {
+    private PackedGrid tiles;
+    private SplittableRandom random;
+    private EllerSets sets;
+
+    private int row;
+    private int column;
+    private boolean joining;
+
+    private int focusX;
+    private int focusY;
+
+    private boolean finished;
+
+    /**
+     * Places the algorithm at the start of the first row.
+     * @param tiles The tiles over which the maze will be built.
+     * @param seed The seed from which the maze is built.
+     */
+    @Override
+    public void restart(PackedGrid tiles, long seed) {
+        this.tiles = tiles;
+        random = new SplittableRandom(seed);
+        sets = new EllerSets(tiles.getColumns());
+
+        row = 0;
+        column = 0;
+        joining = true;
+        focusX = -1;
+        finished = false;
+    }
+
+    /**
+     * Processes the next tile of the current row, focusing it.
+     */
+    @Override
+    public void step() {
+        if (finished) return;
+
+        // Removes the focus from the tile processed in the previous step
+        if (focusX != -1) tiles.setType(focusX, focusY, TileType.FLOOR);
+        focusX = -1;
+
+        // Checks if the last row is finished
+        if (row == tiles.getRows()) {
+            finish();
+            return;
+        }
+
+        focusY = row;
+        focusX = advance();
+        tiles.setType(focusX, focusY, TileType.FOCUS);
+    }
+
+    /**
+     * Processes the rest of the rows in a single loop.
+     */
+    @Override
+    public void generateFully() {
+        if (finished) return;
+
+        if (focusX != -1) tiles.setType(focusX, focusY, TileType.FLOOR);
+        focusX = -1;
+        while (row < tiles.getRows()) advance();
+        finish();
+    }
+
+    /**
+     * Returns the finished flag.
+     * @return The finished flag.
+     */
+    @Override
+    public boolean getFinished() {
+        return finished;
+    }
+
+    /**
+     * Processes the current tile. While joining, it may be joined to the tile to its right, always
+     * in the last row. Otherwise, it may open a passage down.
+     * @return The column of the processed tile.
+     */
+    private int advance() {
+        int processed = column;
+        boolean lastRow = row == tiles.getRows()-1;
+        tiles.setType(column, row, TileType.FLOOR);
+
+        if (joining) {
+            // Joins the tile to the tile to its right if they belong to different sets
+            if (column < tiles.getColumns()-1 && !sets.isJoined(column)
+                && (lastRow || random.nextBoolean())) {
+                sets.join(column);
+                tiles.carve(column, row, Direction.RIGHT);
+            }
+
+            // At the end of the row, chooses the passages down
+            if (++column == tiles.getColumns()) {
+                column = 0;
+                if (lastRow) {
+                    row++;
+                } else {
+                    joining = false;
+                    sets.chooseDown(random);
+                }
+            }
+        } else {
+            // Opens a passage down if the tile was chosen
+            if (sets.getDown(column)) {
+                tiles.carve(column, row, Direction.DOWN);
+                tiles.setType(column, row+1, TileType.FLOOR);
+            }
+
+            // At the end of the row, moves to the next one
+            if (++column == tiles.getColumns()) {
+                column = 0;
+                row++;
+                joining = true;
+                sets.nextRow();
+            }
+        }
+        return processed;
+    }
+
+    /**
+     * Sets the parent directions of the tiles, releases the memory used and sets the finished flag.
+     */
+    private void finish() {
+        tiles.setRoot(0, 0, Direction.UP);
+        sets = null;
+        finished = true;
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.pascualex.mazegenerator.maze.algorithms;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class keeps the sets to which the tiles of the current row belong in Eller's algorithm,
+ * using memory proportional to the number of columns. The tiles of each set are linked in a
+ * circular list so sets can be joined and traversed without scanning the whole row.
+ * @author Alejandro Pascual
+ */
+class EllerSets {
+    private final int columns;
+
+    private final int[] sets;
+    private final int[] next;
+    private final int[] sizes;
+    private final int[] last;
+    private final boolean[] used;
+    private final boolean[] down;
+
+    /**
+     * Instantiates the sets of the first row, with each tile in its own set.
+     * @param columns The number of columns of the maze.
+     */
+    EllerSets(int columns) {
+        this.columns = columns;
+
+        sets = new int[columns];
+        next = new int[columns];
+        sizes = new int[columns];
+        last = new int[columns];
+        used = new boolean[columns];
+        down = new boolean[columns];
+
+        for (int c = 0; c < columns; c++) {
+            sets[c] = c;
+            next[c] = c;
+            sizes[c] = 1;
+        }
+    }
+
+    /**
+     * Returns if a tile and the tile to its right belong to the same set.
+     * @param column The column of the tile.
+     * @return If both tiles belong to the same set.
+     */
+    boolean isJoined(int column) {
+        return sets[column] == sets[column+1];
+    }
+
+    /**
+     * Joins the sets of a tile and the tile to its right, relabeling the smaller one.
+     * @param column The column of the tile.
+     */
+    void join(int column) {
+        int a = sets[column];
+        int b = sets[column+1];
+        if (a == b) return;
+
+        // Relabels the tiles of the smaller set
+        int from = sizes[a] < sizes[b] ? column : column+1;
+        int small = sets[from];
+        int large = small == a ? b : a;
+        int c = from;
+        do {
+            sets[c] = large;
+            c = next[c];
+        } while (c != from);
+        sizes[large] += sizes[small];
+        sizes[small] = 0;
+
+        // Splices both circular lists into one
+        int swap = next[column];
+        next[column] = next[column+1];
+        next[column+1] = swap;
+    }
+
+    /**
+     * Chooses at random which tiles of the row open a passage down, with at least one for each set.
+     * @param random The random number generator used to choose the tiles.
+     */
+    void chooseDown(SplittableRandom random) {
+        for (int c = 0; c < columns; c++) used[c] = false;
+
+        for (int c = 0; c < columns; c++) {
+            int set = sets[c];
+            if (used[set]) continue;
+            used[set] = true;
+
+            // Chooses each tile of the set with probability one half
+            boolean any = false;
+            int m = c;
+            do {
+                down[m] = random.nextBoolean();
+                any |= down[m];
+                m = next[m];
+            } while (m != c);
+
+            // If no tile was chosen, chooses one of them
+            if (!any) {
+                for (int k = random.nextInt(sizes[set]); k > 0; k--) m = next[m];
+                down[m] = true;
+            }
+        }
+    }
+
+    /**
+     * Returns if a tile of the row was chosen to open a passage down.
+     * @param column The column of the tile.
+     * @return If the tile opens a passage down.
+     */
+    boolean getDown(int column) {
+        return down[column];
+    }
+
+    /**
+     * Moves to the next row. The tiles below the ones that opened a passage down keep their sets
+     * and the rest of them get new sets of their own.
+     */
+    void nextRow() {
+        // Marks the sets that continue in the next row
+        for (int c = 0; c < columns; c++) used[c] = false;
+        for (int c = 0; c < columns; c++) {
+            if (down[c]) used[sets[c]] = true;
+        }
+
+        // Assigns unused sets to the rest of the tiles
+        int free = 0;
+        for (int c = 0; c < columns; c++) {
+            if (down[c]) continue;
+            while (used[free]) free++;
+            sets[c] = free;
+            used[free] = true;
+        }
+
+        // Rebuilds the circular lists and the sizes of the sets
+        for (int c = 0; c < columns; c++) {
+            last[c] = -1;
+            sizes[c] = 0;
+        }
+        for (int c = 0; c < columns; c++) {
+            int set = sets[c];
+            if (last[set] == -1) {
+                next[c] = c;
+            } else {
+                next[c] = next[last[set]];
+                next[last[set]] = c;
+            }
+            last[set] = c;
+            sizes[set]++;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.pascualex.mazegenerator.maze.algorithms;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * This class generates a maze with Eller's algorithm as a stream of rows, keeping in memory only
+ * the sets and the passages of the current row, so the memory used doesn't depend on the number of
+ * rows. For the same dimensions and seed, the rows are the same ones that the Eller algorithm
+ * builds over a grid.
+ * @author Alejandro Pascual
+ */
+public class EllerStream {
+    private static final byte UP = 1;
+    private static final byte RIGHT = 2;
+    private static final byte DOWN = 4;
+    private static final byte LEFT = 8;
+
+    private final int columns;
+    private final long rows;
+
+    private final SplittableRandom random;
+    private final EllerSets sets;
+    private final byte[] masks;
+
+    private long row;
+
+    /**
+     * Instantiates a stream of rows given the dimensions and seed of the maze.
+     * @param columns The number of columns of the maze.
+     * @param rows The number of rows of the maze.
+     * @param seed The seed from which the maze is built.
+     */
+    public EllerStream(int columns, long rows, long seed) {
+        this.columns = columns;
+        this.rows = rows;
+
+        random = new SplittableRandom(seed);
+        sets = new EllerSets(columns);
+        masks = new byte[columns];
+
+        row = 0;
+    }
+
+    /**
+     * Returns the number of columns of the maze.
+     * @return The number of columns of the maze.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of rows of the maze.
+     * @return The number of rows of the maze.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns if there are rows left in the stream.
+     * @return If there are rows left.
+     */
+    public boolean hasNextRow() {
+        return row < rows;
+    }
+
+    /**
+     * Builds the next row of the maze, returning the masks of the passages of its tiles, with one
+     * bit for each direction, from the lowest bit, up, right, down and left. The array is reused
+     * for the following rows.
+     * @return The masks of the passages of the tiles of the row.
+     */
+    public byte[] nextRow() {
+        boolean lastRow = row == rows-1;
+
+        // Opens the passages up where the previous row opened passages down
+        for (int c = 0; c < columns; c++) {
+            masks[c] = (masks[c] & DOWN) != 0 ? UP : 0;
+        }
+
+        // Joins adjacent tiles of different sets, all of them in the last row
+        for (int c = 0; c < columns-1; c++) {
+            if (!sets.isJoined(c) && (lastRow || random.nextBoolean())) {
+                sets.join(c);
+                masks[c] |= RIGHT;
+                masks[c+1] |= LEFT;
+            }
+        }
+
+        // Opens the passages down and moves the sets to the next row
+        if (!lastRow) {
+            sets.chooseDown(random);
+            for (int c = 0; c < columns; c++) {
+                if (sets.getDown(c)) masks[c] |= DOWN;
+            }
+            sets.nextRow();
+        }
+
+        row++;
+        return masks;
+    }
+
+    /**
+     * Builds all the remaining rows, giving each of them to the sink as soon as it's finished.
+     * @param sink The destination of the rows.
+     * @throws IOException If the sink can't write a row.
+     */
+    public void generate(MazeRowSink sink) throws IOException {
+        while (hasNextRow()) sink.accept(nextRow());
+    }
+}
@@ -0,0 +1,187 @@
+package com.github.pascualex.mazegenerator.maze.algorithms;
+
+import com.github.pascualex.mazegenerator.maze.components.Direction;
+import com.github.pascualex.mazegenerator.maze.components.PackedGrid;
+import com.github.pascualex.mazegenerator.maze.components.TileType;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class defines the randomized Kruskal's algorithm. The walls between tiles are visited in a
+ * random order and each one is removed if the tiles at both sides belong to different sets, which
+ * are tracked with a union-find structure with path compression.
+ * @author Alejandro Pascual
+ */
+public class KruskalAlgorithm implements MazeGenerationAlgorithm {
+    private PackedGrid tiles;
+
+    private int[] walls;
+    private int[] sets;
+    private int nextWall;
+    private int joins;
+
+    private int focusA;
+    private int focusB;
+
+    private boolean finished;
+
+    /**
+     * Creates the shuffled list of walls and a set for each tile.
+     * @param tiles The tiles over which the maze will be built.
+     * @param seed The seed from which the maze is built.
+     */
+    @Override
+    public void restart(PackedGrid tiles, long seed) {
+        this.tiles = tiles;
+        int columns = tiles.getColumns();
+        int rows = tiles.getRows();
+
+        // Lists the walls to the right and below each tile, encoded as the index of the tile times
+        // two plus one if the wall is below
+        walls = new int[(columns-1)*rows+columns*(rows-1)];
+        int n = 0;
+        for (int i = 0; i < columns*rows; i++) {
+            if (i%columns < columns-1) walls[n++] = i*2;
+            if (i/columns < rows-1) walls[n++] = i*2+1;
+        }
+
+        // Shuffles the walls
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = walls.length-1; i > 0; i--) {
+            int j = random.nextInt(i+1);
+            int wall = walls[i];
+            walls[i] = walls[j];
+            walls[j] = wall;
+        }
+
+        // Creates a set for each tile
+        sets = new int[columns*rows];
+        for (int i = 0; i < sets.length; i++) sets[i] = i;
+
+        nextWall = 0;
+        joins = 0;
+        focusA = -1;
+        focusB = -1;
+        finished = false;
+
+        // A single tile is already a finished maze
+        if (sets.length == 1) tiles.setType(0, 0, TileType.FLOOR);
+    }
+
+    /**
+     * Removes the next wall that joins two different sets, focusing the tiles at both sides.
+     */
+    @Override
+    public void step() {
+        if (finished) return;
+
+        // Removes the focus from the tiles joined in the previous step
+        unfocus();
+
+        // Checks if all the tiles already belong to the same set
+        if (joins == sets.length-1) {
+            finish();
+            return;
+        }
+
+        // Joins the next pair of tiles and focuses them
+        int wall = nextJoin();
+        int columns = tiles.getColumns();
+        focusA = wall/2;
+        focusB = wall%2 == 0 ? focusA+1 : focusA+columns;
+        tiles.setType(focusA%columns, focusA/columns, TileType.FOCUS);
+        tiles.setType(focusB%columns, focusB/columns, TileType.FOCUS);
+    }
+
+    /**
+     * Removes all the walls that join two different sets in a single loop.
+     */
+    @Override
+    public void generateFully() {
+        if (finished) return;
+
+        unfocus();
+        int columns = tiles.getColumns();
+        while (joins < sets.length-1) {
+            int wall = nextJoin();
+            int a = wall/2;
+            int b = wall%2 == 0 ? a+1 : a+columns;
+            tiles.setType(a%columns, a/columns, TileType.FLOOR);
+            tiles.setType(b%columns, b/columns, TileType.FLOOR);
+        }
+        finish();
+    }
+
+    /**
+     * Returns the finished flag.
+     * @return The finished flag.
+     */
+    @Override
+    public boolean getFinished() {
+        return finished;
+    }
+
+    /**
+     * Advances through the walls until one separates two different sets, then removes it and
+     * joins the sets.
+     * @return The wall that was removed.
+     */
+    private int nextJoin() {
+        int columns = tiles.getColumns();
+        while (true) {
+            int wall = walls[nextWall++];
+            int a = wall/2;
+            int b = wall%2 == 0 ? a+1 : a+columns;
+
+            // Checks if the tiles already belong to the same set
+            int setA = find(a);
+            int setB = find(b);
+            if (setA == setB) continue;
+
+            // Joins the sets and removes the wall
+            sets[setA] = setB;
+            joins++;
+            tiles.carve(a%columns, a/columns, wall%2 == 0 ? Direction.RIGHT : Direction.DOWN);
+            return wall;
+        }
+    }
+
+    /**
+     * Returns the representative of the set of a tile, compressing the path to it.
+     * @param i The index of the tile.
+     * @return The representative of the set of the tile.
+     */
+    private int find(int i) {
+        int root = i;
+        while (sets[root] != root) root = sets[root];
+
+        // Points every tile of the path directly to the representative
+        while (sets[i] != root) {
+            int next = sets[i];
+            sets[i] = root;
+            i = next;
+        }
+        return root;
+    }
+
+    /**
+     * Sets the focused tiles back to floor.
+     */
+    private void unfocus() {
+        int columns = tiles.getColumns();
+        if (focusA != -1) tiles.setType(focusA%columns, focusA/columns, TileType.FLOOR);
+        if (focusB != -1) tiles.setType(focusB%columns, focusB/columns, TileType.FLOOR);
+        focusA = -1;
+        focusB = -1;
+    }
+
+    /**
+     * Sets the parent directions of the tiles, releases the memory used and sets the finished flag.
+     */
+    private void finish() {
+        tiles.setRoot(0, 0, Direction.UP);
+        walls = null;
+        sets = null;
+        finished = true;
+    }
+}
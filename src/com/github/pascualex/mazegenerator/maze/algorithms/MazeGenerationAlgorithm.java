@@ -0,0 +1,47 @@
+package com.github.pascualex.mazegenerator.maze.algorithms;
+
+import com.github.pascualex.mazegenerator.maze.components.PackedGrid;
+
+/**
+ * This interface defines an algorithm that builds a perfect maze over the tiles of a grid, either
+ * step by step or all at once. When the algorithm finishes, every tile must be floor and the
+ * parent directions of the tiles must lead to the upper left corner, whose parent direction is up.
+ * @author Alejandro Pascual
+ */
+public interface MazeGenerationAlgorithm {
+
+    /**
+     * Prepares the algorithm to build a new maze over the given tiles, which must be in their
+     * initial state.
+     * @param tiles The tiles over which the maze will be built.
+     * @param seed The seed from which the maze is built.
+     */
+    void restart(PackedGrid tiles, long seed);
+
+    /**
+     * Advances one step in the building process, leaving the tiles in a state that can be painted.
+     * Won't do anything if the algorithm is already finished.
+     */
+    void step();
+
+    /**
+     * Builds the rest of the maze in a single call, skipping the intermediate states of the tiles.
+     * The resulting maze is the same that the steps would have built from the current state.
+     */
+    void generateFully();
+
+    /**
+     * Returns the finished flag.
+     * @return The finished flag.
+     */
+    boolean getFinished();
+
+    /**
+     * Returns the depth of the search, for the algorithms that build the maze as a depth-first
+     * search. The rest of the algorithms have no depth.
+     * @return The number of tiles between the current tile and the starting tile, or 0.
+     */
+    default int getDepth() {
+        return 0;
+    }
+}
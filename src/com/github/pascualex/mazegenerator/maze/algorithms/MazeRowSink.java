@@ -0,0 +1,79 @@
+package com.github.pascualex.mazegenerator.maze.algorithms;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * This interface defines a destination for the rows of a maze generated as a stream. Each row is
+ * given as the masks of the passages of its tiles, with one bit for each direction, from the lowest
+ * bit, up, right, down and left.
+ * @author Alejandro Pascual
+ */
+public interface MazeRowSink {
+
+    /**
+     * Receives the next row of the maze. The array is reused for the following rows, so it must
+     * be copied if it's kept.
+     * @param masks The masks of the passages of the tiles of the row.
+     * @throws IOException If the row can't be written.
+     */
+    void accept(byte[] masks) throws IOException;
+
+    /**
+     * Returns a sink that writes the rows to an output stream, packing the masks of two tiles in
+     * each byte, the first one in the lowest four bits.
+     * @param out The output stream to write to.
+     * @return The sink that writes to the output stream.
+     */
+    static MazeRowSink toOutputStream(OutputStream out) {
+        return new MazeRowSink() {
+            private byte[] packed = new byte[0];
+
+            @Override
+            public void accept(byte[] masks) throws IOException {
+                if (packed.length != (masks.length+1)/2) packed = new byte[(masks.length+1)/2];
+                pack(masks, packed);
+                out.write(packed);
+            }
+        };
+    }
+
+    /**
+     * Returns a sink that writes the rows to a channel, packing the masks of two tiles in each
+     * byte, the first one in the lowest four bits.
+     * @param channel The channel to write to.
+     * @return The sink that writes to the channel.
+     */
+    static MazeRowSink toChannel(WritableByteChannel channel) {
+        return new MazeRowSink() {
+            private byte[] packed = new byte[0];
+            private ByteBuffer buffer;
+
+            @Override
+            public void accept(byte[] masks) throws IOException {
+                if (packed.length != (masks.length+1)/2) {
+                    packed = new byte[(masks.length+1)/2];
+                    buffer = ByteBuffer.wrap(packed);
+                }
+                pack(masks, packed);
+                buffer.clear();
+                while (buffer.hasRemaining()) channel.write(buffer);
+            }
+        };
+    }
+
+    /**
+     * Packs the masks of two tiles in each byte, the first one in the lowest four bits.
+     * @param masks The masks of the tiles.
+     * @param packed The array where the packed masks are stored.
+     */
+    static void pack(byte[] masks, byte[] packed) {
+        for (int i = 0; i < packed.length; i++) {
+            int low = masks[i*2];
+            int high = i*2+1 < masks.length ? masks[i*2+1] : 0;
+            packed[i] = (byte) (low | high << 4);
+        }
+    }
+}
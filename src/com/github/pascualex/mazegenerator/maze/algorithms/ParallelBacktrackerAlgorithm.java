@@ -0,0 +1,276 @@
+package com.github.pascualex.mazegenerator.maze.algorithms;
+
+import com.github.pascualex.mazegenerator.maze.components.Direction;
+import com.github.pascualex.mazegenerator.maze.components.PackedGrid;
+import com.github.pascualex.mazegenerator.maze.components.TileType;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class defines a depth-first search split into square blocks of tiles. Each block is built
+ * independently by its own search, so the blocks can be built in parallel on a fork-join pool, and
+ * then the blocks are joined through a random spanning tree over the graph of blocks, opening one
+ * passage for each pair of blocks joined. The result is still a perfect maze, and it doesn't depend
+ * on the number of threads.
+ * @author Alejandro Pascual
+ */
+public class ParallelBacktrackerAlgorithm implements MazeGenerationAlgorithm {
+    private static final int DEFAULT_BLOCK_SIDE = 128;
+
+    private final int blockSide;
+    private final ForkJoinPool pool;
+
+    private PackedGrid tiles;
+    private long seed;
+
+    private int blockColumns;
+    private int blockRows;
+    private int nextBlock;
+    private RecursiveBacktrackerAlgorithm block;
+
+    private boolean finished;
+
+    /**
+     * Instantiates the algorithm with the default block side given the pool where the blocks are
+     * built.
+     * @param pool The pool where the blocks are built.
+     */
+    public ParallelBacktrackerAlgorithm(ForkJoinPool pool) {
+        this(DEFAULT_BLOCK_SIDE, pool);
+    }
+
+    /**
+     * Instantiates the algorithm given its block side and the pool where the blocks are built.
+     * @param blockSide The number of tiles of the side of each block.
+     * @param pool The pool where the blocks are built.
+     */
+    public ParallelBacktrackerAlgorithm(int blockSide, ForkJoinPool pool) {
+        this.blockSide = blockSide;
+        this.pool = pool;
+    }
+
+    /**
+     * Splits the tiles into blocks and places the algorithm at the first one.
+     * @param tiles The tiles over which the maze will be built.
+     * @param seed The seed from which the maze is built.
+     */
+    @Override
+    public void restart(PackedGrid tiles, long seed) {
+        this.tiles = tiles;
+        this.seed = seed;
+
+        blockColumns = (tiles.getColumns()+blockSide-1)/blockSide;
+        blockRows = (tiles.getRows()+blockSide-1)/blockSide;
+        nextBlock = 0;
+        block = null;
+        finished = false;
+    }
+
+    /**
+     * Advances one step in the search of the current block. Blocks are built one after another and
+     * joined in a last step.
+     */
+    @Override
+    public void step() {
+        if (finished) return;
+
+        // Starts the next block if there is no block in progress
+        if (block == null) {
+            if (nextBlock == blockColumns*blockRows) {
+                joinBlocks();
+                return;
+            }
+            block = createBlock(nextBlock++);
+            block.restart(tiles, seed);
+            return;
+        }
+
+        block.step();
+        if (block.getFinished()) block = null;
+    }
+
+    /**
+     * Builds the remaining blocks in parallel and joins them.
+     */
+    @Override
+    public void generateFully() {
+        if (finished) return;
+
+        // Finishes the block in progress
+        if (block != null) {
+            block.generateFully();
+            block = null;
+        }
+
+        // Marks the whole grid as changed, so the workers never record the tiles they change
+        tiles.markAllDirty();
+        pool.invoke(new BlockTask(nextBlock, blockColumns*blockRows));
+        nextBlock = blockColumns*blockRows;
+
+        // Every block was built whole, so every tile was reached, while the counts of the workers
+        // may have been lost
+        tiles.setBuiltTiles(tiles.getColumns()*tiles.getRows());
+        joinBlocks();
+    }
+
+    /**
+     * Returns the finished flag.
+     * @return The finished flag.
+     */
+    @Override
+    public boolean getFinished() {
+        return finished;
+    }
+
+    /**
+     * Returns the depth of the search of the block in progress.
+     * @return The depth of the search, or 0 if there is no block in progress.
+     */
+    @Override
+    public int getDepth() {
+        return block != null ? block.getDepth() : 0;
+    }
+
+    /**
+     * Creates the search of a block.
+     * @param index The index of the block.
+     * @return The search limited to the block.
+     */
+    private RecursiveBacktrackerAlgorithm createBlock(int index) {
+        int x = index%blockColumns*blockSide;
+        int y = index/blockColumns*blockSide;
+        int columns = Math.min(blockSide, tiles.getColumns()-x);
+        int rows = Math.min(blockSide, tiles.getRows()-y);
+        return new RecursiveBacktrackerAlgorithm(x, y, columns, rows);
+    }
+
+    /**
+     * Joins the blocks through a spanning tree of the graph of blocks, built with a depth-first
+     * search in random order. Each pair of blocks is joined through a random tile of their border.
+     * Then sets the parent directions of the tiles and the finished flag.
+     */
+    private void joinBlocks() {
+        SplittableRandom random = new SplittableRandom(seed);
+        Direction[] directions = {Direction.UP, Direction.RIGHT, Direction.DOWN, Direction.LEFT};
+
+        // Searches the graph of blocks, using an explicit stack of block indices
+        int blocks = blockColumns*blockRows;
+        boolean[] visited = new boolean[blocks];
+        int[] stack = new int[blocks];
+        int size = 0;
+        stack[size++] = 0;
+        visited[0] = true;
+        while (size > 0) {
+            int current = stack[size-1];
+            int bx = current%blockColumns;
+            int by = current/blockColumns;
+
+            // Counts the neighbour blocks that haven't been visited
+            int count = 0;
+            for (Direction direction : directions) {
+                if (isUnvisited(visited, bx+direction.getX(), by+direction.getY())) count++;
+            }
+            if (count == 0) {
+                size--;
+                continue;
+            }
+
+            // Joins a random one of them and visits it
+            int skip = random.nextInt(count);
+            for (Direction direction : directions) {
+                int nx = bx+direction.getX();
+                int ny = by+direction.getY();
+                if (isUnvisited(visited, nx, ny) && skip-- == 0) {
+                    openBorder(bx, by, direction, random);
+                    visited[ny*blockColumns+nx] = true;
+                    stack[size++] = ny*blockColumns+nx;
+                    break;
+                }
+            }
+        }
+
+        tiles.setRoot(0, 0, Direction.UP);
+        finished = true;
+    }
+
+    /**
+     * Returns if a block is inside the graph of blocks and hasn't been visited yet.
+     * @param visited The visited flags of the blocks.
+     * @param bx The column of the block.
+     * @param by The row of the block.
+     * @return If the block exists and hasn't been visited.
+     */
+    private boolean isUnvisited(boolean[] visited, int bx, int by) {
+        if (bx < 0 || bx >= blockColumns || by < 0 || by >= blockRows) return false;
+
+        return !visited[by*blockColumns+bx];
+    }
+
+    /**
+     * Opens a passage through the border between a block and its neighbour, in a random tile of
+     * the border.
+     * @param bx The column of the block.
+     * @param by The row of the block.
+     * @param direction The direction of the neighbour block.
+     * @param random The random number generator used to choose the tile.
+     */
+    private void openBorder(int bx, int by, Direction direction, SplittableRandom random) {
+        int left = bx*blockSide;
+        int top = by*blockSide;
+        int right = Math.min(left+blockSide, tiles.getColumns())-1;
+        int bottom = Math.min(top+blockSide, tiles.getRows())-1;
+
+        // Chooses a tile along the border, on the side of the block
+        int x;
+        int y;
+        if (direction == Direction.UP || direction == Direction.DOWN) {
+            x = left+random.nextInt(right-left+1);
+            y = direction == Direction.UP ? top : bottom;
+        } else {
+            x = direction == Direction.LEFT ? left : right;
+            y = top+random.nextInt(bottom-top+1);
+        }
+        tiles.carve(x, y, direction);
+    }
+
+    /**
+     * This class defines the task that builds a range of blocks, splitting it in halves until a
+     * single block remains.
+     */
+    private class BlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 0;
+
+        private final int from;
+        private final int to;
+
+        /**
+         * Instantiates a task given its range of blocks.
+         * @param from The index of the first block, included.
+         * @param to The index of the last block, excluded.
+         */
+        BlockTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Builds the block if there is only one, or splits the range otherwise.
+         */
+        @Override
+        protected void compute() {
+            if (to-from <= 1) {
+                if (to > from) {
+                    RecursiveBacktrackerAlgorithm search = createBlock(from);
+                    search.restart(tiles, seed);
+                    search.generateFully();
+                }
+                return;
+            }
+
+            int middle = (from+to) >>> 1;
+            invokeAll(new BlockTask(from, middle), new BlockTask(middle, to));
+        }
+    }
+}
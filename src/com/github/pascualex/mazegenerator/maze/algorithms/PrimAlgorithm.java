@@ -0,0 +1,180 @@
+package com.github.pascualex.mazegenerator.maze.algorithms;
+
+import com.github.pascualex.mazegenerator.maze.components.Direction;
+import com.github.pascualex.mazegenerator.maze.components.PackedGrid;
+import com.github.pascualex.mazegenerator.maze.components.TileType;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class defines the randomized Prim's algorithm. The maze grows from a random tile by taking
+ * random tiles from its frontier, the set of wall tiles next to it, and joining them to one of
+ * their neighbours that is already part of the maze.
+ * @author Alejandro Pascual
+ */
+public class PrimAlgorithm implements MazeGenerationAlgorithm {
+    private static final Direction[] DIRECTIONS = {
+        Direction.UP, Direction.RIGHT, Direction.DOWN, Direction.LEFT
+    };
+
+    private PackedGrid tiles;
+    private SplittableRandom random;
+
+    private int[] frontier;
+    private int frontierSize;
+    private long[] inFrontier;
+
+    private int focus;
+
+    private boolean finished;
+
+    /**
+     * Adds a random starting tile to the maze and its neighbours to the frontier.
+     * @param tiles The tiles over which the maze will be built.
+     * @param seed The seed from which the maze is built.
+     */
+    @Override
+    public void restart(PackedGrid tiles, long seed) {
+        this.tiles = tiles;
+        random = new SplittableRandom(seed);
+
+        int size = tiles.getColumns()*tiles.getRows();
+        frontier = new int[size];
+        frontierSize = 0;
+        inFrontier = new long[(size+63)/64];
+
+        // Adds the starting tile to the maze
+        int start = random.nextInt(size);
+        tiles.setType(start%tiles.getColumns(), start/tiles.getColumns(), TileType.FLOOR);
+        expand(start);
+
+        focus = -1;
+        finished = false;
+    }
+
+    /**
+     * Joins a random tile of the frontier to the maze, focusing it.
+     */
+    @Override
+    public void step() {
+        if (finished) return;
+
+        // Removes the focus from the tile joined in the previous step
+        if (focus != -1) {
+            tiles.setType(focus%tiles.getColumns(), focus/tiles.getColumns(), TileType.FLOOR);
+            focus = -1;
+        }
+
+        // Checks if the frontier is empty
+        if (frontierSize == 0) {
+            finish();
+            return;
+        }
+
+        focus = join();
+        tiles.setType(focus%tiles.getColumns(), focus/tiles.getColumns(), TileType.FOCUS);
+    }
+
+    /**
+     * Joins all the tiles of the frontier to the maze in a single loop.
+     */
+    @Override
+    public void generateFully() {
+        if (finished) return;
+
+        if (focus != -1) {
+            tiles.setType(focus%tiles.getColumns(), focus/tiles.getColumns(), TileType.FLOOR);
+            focus = -1;
+        }
+        while (frontierSize > 0) {
+            int i = join();
+            tiles.setType(i%tiles.getColumns(), i/tiles.getColumns(), TileType.FLOOR);
+        }
+        finish();
+    }
+
+    /**
+     * Returns the finished flag.
+     * @return The finished flag.
+     */
+    @Override
+    public boolean getFinished() {
+        return finished;
+    }
+
+    /**
+     * Removes a random tile from the frontier, opens a passage to a random neighbour that is part
+     * of the maze and adds its wall neighbours to the frontier.
+     * @return The index of the joined tile.
+     */
+    private int join() {
+        int columns = tiles.getColumns();
+
+        // Takes a random tile from the frontier
+        int k = random.nextInt(frontierSize);
+        int i = frontier[k];
+        frontier[k] = frontier[--frontierSize];
+        int x = i%columns;
+        int y = i/columns;
+
+        // Counts the neighbours that are already part of the maze
+        int count = 0;
+        for (Direction direction : DIRECTIONS) {
+            if (isMaze(x+direction.getX(), y+direction.getY())) count++;
+        }
+
+        // Opens a passage to a random one of them
+        int skip = random.nextInt(count);
+        for (Direction direction : DIRECTIONS) {
+            if (isMaze(x+direction.getX(), y+direction.getY()) && skip-- == 0) {
+                tiles.carve(x, y, direction);
+                break;
+            }
+        }
+
+        expand(i);
+        return i;
+    }
+
+    /**
+     * Adds the wall neighbours of a tile that aren't in the frontier yet to the frontier.
+     * @param i The index of the tile.
+     */
+    private void expand(int i) {
+        int columns = tiles.getColumns();
+        for (Direction direction : DIRECTIONS) {
+            int x = i%columns+direction.getX();
+            int y = i/columns+direction.getY();
+            if (x < 0 || x >= columns || y < 0 || y >= tiles.getRows()) continue;
+
+            int j = y*columns+x;
+            if ((inFrontier[j >>> 6] & 1L << j) != 0) continue;
+            if (tiles.getType(x, y) != TileType.WALL) continue;
+
+            inFrontier[j >>> 6] |= 1L << j;
+            frontier[frontierSize++] = j;
+        }
+    }
+
+    /**
+     * Returns if a position is inside the grid and its tile is part of the maze.
+     * @param x The column of the position.
+     * @param y The row of the position.
+     * @return If the tile is part of the maze.
+     */
+    private boolean isMaze(int x, int y) {
+        if (x < 0 || x >= tiles.getColumns() || y < 0 || y >= tiles.getRows()) return false;
+
+        return tiles.getType(x, y) != TileType.WALL;
+    }
+
+    /**
+     * Sets the parent directions of the tiles, releases the memory used and sets the finished flag.
+     */
+    private void finish() {
+        tiles.setRoot(0, 0, Direction.UP);
+        frontier = null;
+        inFrontier = null;
+        finished = true;
+    }
+}
@@ -0,0 +1,283 @@
+package com.github.pascualex.mazegenerator.maze.algorithms;
+
+import com.github.pascualex.mazegenerator.maze.components.Direction;
+import com.github.pascualex.mazegenerator.maze.components.PackedGrid;
+import com.github.pascualex.mazegenerator.maze.components.TileType;
+
+import java.util.Arrays;
+
+/**
+ * This class defines the depth-first search algorithm. Instead of using a stack or recursion, the
+ * tiles store the directions that haven't been tried yet and the direction of their parent, which
+ * is used to backtrack. The search can be limited to a rectangular region of the tiles, starting
+ * from its upper left corner.
+ * @author Alejandro Pascual
+ */
+public class RecursiveBacktrackerAlgorithm implements MazeGenerationAlgorithm {
+    private PackedGrid tiles;
+
+    private final int regionX;
+    private final int regionY;
+    private final int regionColumns;
+    private final int regionRows;
+
+    private int left;
+    private int top;
+    private int right;
+    private int bottom;
+
+    private int x;
+    private int y;
+
+    private int newX;
+    private int newY;
+
+    private int depth;
+
+    private boolean finished;
+
+    /**
+     * Instantiates a depth-first search over all the tiles.
+     */
+    public RecursiveBacktrackerAlgorithm() {
+        this(0, 0, 0, 0);
+    }
+
+    /**
+     * Instantiates a depth-first search limited to a rectangular region of the tiles. The starting
+     * tile of the region only gets the up parent direction if it's the upper left corner of the
+     * maze.
+     * @param regionX The first column of the region.
+     * @param regionY The first row of the region.
+     * @param regionColumns The number of columns of the region, or 0 to use all the tiles.
+     * @param regionRows The number of rows of the region, or 0 to use all the tiles.
+     */
+    public RecursiveBacktrackerAlgorithm(int regionX, int regionY, 
+                                         int regionColumns, int regionRows) {
+        this.regionX = regionX;
+        this.regionY = regionY;
+        this.regionColumns = regionColumns;
+        this.regionRows = regionRows;
+    }
+
+    /**
+     * Sets the current tile to the upper left corner of the region and marks it as the starting
+     * tile.
+     * @param tiles The tiles over which the maze will be built.
+     * @param seed The seed from which the maze is built, already used by the tiles.
+     */
+    @Override
+    public void restart(PackedGrid tiles, long seed) {
+        this.tiles = tiles;
+
+        // Sets the limits of the region
+        left = regionX;
+        top = regionY;
+        right = regionColumns > 0 ? regionX+regionColumns : tiles.getColumns();
+        bottom = regionRows > 0 ? regionY+regionRows : tiles.getRows();
+
+        // Sets the current tile to the upper left corner of the region
+        x = left;
+        y = top;
+
+        // Sets the current state of the starting tile
+        tiles.setType(x, y, TileType.FOCUS_ENTERING);
+        if (x == 0 && y == 0) tiles.setParentDirection(x, y, Direction.UP);
+
+        depth = 0;
+        finished = false;
+    }
+
+    /**
+     * Based on the state of the current tile and its neighbours, advances one step in the building
+     * process, updating the finished flag when needed.
+     */
+    @Override
+    public void step() {
+        if (finished) return;
+
+        // Gets the type of the current tile
+        TileType type = tiles.getType(x, y);
+
+        // Checks if the type of the tile is focus entering
+        if (type == TileType.FOCUS_ENTERING) {
+            // Updates the type to focus and returns
+            tiles.setType(x, y, TileType.FOCUS);
+            return;
+        }
+
+        // Checks if the type of the tile is focus leaving
+        if (type == TileType.FOCUS_LEAVING) {  
+            // Updates the type to floor
+            tiles.setType(x, y, TileType.FLOOR);
+
+            // If the tile is the starting tile, finishes the maze
+            if (x == left && y == top) {
+                finished = true;
+                return;
+            } 
+
+            // Sets the next tile and updates its type to focus
+            x = newX;
+            y = newY;
+            depth--;
+            tiles.setType(x, y, TileType.FOCUS);
+            return;
+        }
+
+        // Tries to get a valid new direction
+        Direction direction = findDirection();
+        
+        // If there is no valid new direction, returns to the parent of the tile
+        if (direction == null) {
+            Direction parentDirection = tiles.getParentDirection(x, y);
+            newX = x+parentDirection.getX();
+            newY = y+parentDirection.getY();            
+            tiles.setType(x, y, TileType.FOCUS_LEAVING);
+            return;
+        }
+
+        // Sets the current tile as floor and advances in the valid direction
+        tiles.setType(x, y, TileType.FLOOR);
+        tiles.carve(x, y, direction);
+        x = x+direction.getX();
+        y = y+direction.getY();
+        depth++;
+
+        // Sets the parent direction of the new tile
+        Direction opposite = Direction.getOpposite(direction);
+        tiles.setParentDirection(x, y, opposite);
+        tiles.removeDirection(x, y, opposite);
+
+        // Sets the new state of the new tile
+        tiles.setType(x, y, TileType.FOCUS_ENTERING);
+    }
+
+    /**
+     * Builds the rest of the maze in a single loop, marking the tiles as floor as soon as they are
+     * reached. Instead of backtracking through the parent directions, the loop keeps the tiles of
+     * the region already reached in a bitset and the tiles of the search in a stack, by their
+     * indices in the bitset. The bitset is bordered by reached tiles, so the free neighbours of a
+     * tile are found with bit operations, and nothing is allocated but the stack and the bitset.
+     */
+    @Override
+    public void generateFully() {
+        if (finished) return;
+
+        // Completes the pending return to the parent of the current tile, if there is one
+        if (tiles.getType(x, y) == TileType.FOCUS_LEAVING) {
+            tiles.setType(x, y, TileType.FLOOR);
+            if (x == left && y == top) {
+                finished = true;
+                return;
+            }
+            x = newX;
+            y = newY;
+            depth--;
+        }
+        tiles.setType(x, y, TileType.FLOOR);
+
+        // Marks the tiles of the region already reached, and the border around the region
+        int width = right-left+2;
+        int height = bottom-top+2;
+        long[] reached = new long[(width*height+63)/64];
+        for (int row = 0; row < height; row++) {
+            for (int column = 0; column < width; column++) {
+                int bit = row*width+column;
+                if (row == 0 || row == height-1 || column == 0 || column == width-1
+                    || !tiles.isWall(tiles.getIndex(left-1+column, top-1+row))) {
+                    reached[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+        int[] offsets = {0, -width, 1, 0, width, 0, 0, 0, -1};
+
+        // Rebuilds the stack, of indices in the bitset, from the current tile back to the
+        // starting tile
+        int[] stack = new int[Math.max(depth+1, 1024)];
+        int size = depth+1;
+        int stackX = x;
+        int stackY = y;
+        for (int k = depth; k >= 0; k--) {
+            stack[k] = (stackY-top+1)*width+stackX-left+1;
+            Direction parentDirection = tiles.getParentDirection(stackX, stackY);
+            stackX += parentDirection.getX();
+            stackY += parentDirection.getY();
+        }
+
+        // Advances until the starting tile runs out of free neighbours, keeping the index of the
+        // current tile in the grid too
+        int k = stack[size-1];
+        int i = tiles.getIndex(x, y);
+        while (true) {
+            int free = ~((int) (reached[(k-width) >>> 6] >>> (k-width)) & 1
+                         | ((int) (reached[(k+1) >>> 6] >>> (k+1)) & 1) << 1
+                         | ((int) (reached[(k+width) >>> 6] >>> (k+width)) & 1) << 2
+                         | ((int) (reached[(k-1) >>> 6] >>> (k-1)) & 1) << 3);
+            int bit = tiles.takeDirection(i, free);
+
+            // If there is no free neighbour left, returns to the parent of the tile
+            if (bit == 0) {
+                if (--size == 0) break;
+                k = stack[size-1];
+                int row = k/width;
+                i = tiles.getIndex(left-1+k-row*width, top-1+row);
+                continue;
+            }
+
+            // Advances to the free neighbour
+            i = tiles.advance(i, bit);
+            k += offsets[bit];
+            reached[k >>> 6] |= 1L << k;
+            if (size == stack.length) stack = Arrays.copyOf(stack, size*2);
+            stack[size++] = k;
+        }
+
+        x = left;
+        y = top;
+        depth = 0;
+        finished = true;
+    }
+
+    /**
+     * Returns the finished flag.
+     * @return The finished flag.
+     */
+    @Override
+    public boolean getFinished() {
+        return finished;
+    }
+
+    /**
+     * Returns the number of tiles between the current tile and the starting tile.
+     * @return The depth of the search.
+     */
+    @Override
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Takes directions from the current tile until one leads to a tile inside the region that isn't
+     * floor yet.
+     * @return The valid new direction or null if the current tile has none left.
+     */
+    private Direction findDirection() {
+        Direction direction;
+        while ((direction = tiles.getDirection(x, y)) != null) {
+            // Checks the new tile isn't outside the region 
+            if (x+direction.getX() < left) continue;
+            if (x+direction.getX() >= right) continue;          
+            if (y+direction.getY() < top) continue;
+            if (y+direction.getY() >= bottom) continue;
+
+            // Checks the new tile isn't already floor
+            TileType target = tiles.getType(x+direction.getX(), y+direction.getY());
+            if (target == TileType.FLOOR) continue;
+
+            // If everything is correct, breaks
+            break;
+        }
+        return direction;
+    }
+}
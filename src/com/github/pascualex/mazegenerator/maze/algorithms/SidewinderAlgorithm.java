@@ -0,0 +1,125 @@
+package com.github.pascualex.mazegenerator.maze.algorithms;
+
+import com.github.pascualex.mazegenerator.maze.components.Direction;
+import com.github.pascualex.mazegenerator.maze.components.PackedGrid;
+import com.github.pascualex.mazegenerator.maze.components.TileType;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class defines the sidewinder algorithm. The first row is a single corridor and each of the
+ * following rows is split into runs of tiles joined horizontally, each of them joined to the row
+ * above through a random tile of the run. Only the start of the current run is kept.
+ * @author Alejandro Pascual
+ */
+public class SidewinderAlgorithm implements MazeGenerationAlgorithm {
+    private PackedGrid tiles;
+    private SplittableRandom random;
+
+    private int x;
+    private int y;
+    private int runStart;
+
+    private int focusX;
+    private int focusY;
+
+    private boolean finished;
+
+    /**
+     * Places the algorithm at the start of the first row.
+     * @param tiles The tiles over which the maze will be built.
+     * @param seed The seed from which the maze is built.
+     */
+    @Override
+    public void restart(PackedGrid tiles, long seed) {
+        this.tiles = tiles;
+        random = new SplittableRandom(seed);
+
+        x = 0;
+        y = 0;
+        runStart = 0;
+        focusX = -1;
+        finished = false;
+    }
+
+    /**
+     * Processes the next tile, focusing it.
+     */
+    @Override
+    public void step() {
+        if (finished) return;
+
+        // Removes the focus from the tile processed in the previous step
+        if (focusX != -1) tiles.setType(focusX, focusY, TileType.FLOOR);
+        focusX = -1;
+
+        // Checks if the last row is finished
+        if (y == tiles.getRows()) {
+            finish();
+            return;
+        }
+
+        focusX = x;
+        focusY = y;
+        advance();
+        tiles.setType(focusX, focusY, TileType.FOCUS);
+    }
+
+    /**
+     * Processes the rest of the tiles in a single loop.
+     */
+    @Override
+    public void generateFully() {
+        if (finished) return;
+
+        if (focusX != -1) tiles.setType(focusX, focusY, TileType.FLOOR);
+        focusX = -1;
+        while (y < tiles.getRows()) advance();
+        finish();
+    }
+
+    /**
+     * Returns the finished flag.
+     * @return The finished flag.
+     */
+    @Override
+    public boolean getFinished() {
+        return finished;
+    }
+
+    /**
+     * Processes the current tile, either extending the run to the right or closing it by joining a
+     * random tile of the run to the row above.
+     */
+    private void advance() {
+        tiles.setType(x, y, TileType.FLOOR);
+        boolean lastColumn = x == tiles.getColumns()-1;
+
+        if (y == 0) {
+            // The first row is a single corridor
+            if (!lastColumn) tiles.carve(x, y, Direction.RIGHT);
+        } else if (lastColumn || random.nextBoolean()) {
+            // Closes the run, joining one of its tiles to the row above
+            int k = runStart+random.nextInt(x-runStart+1);
+            tiles.carve(k, y, Direction.UP);
+            runStart = x+1;
+        } else {
+            tiles.carve(x, y, Direction.RIGHT);
+        }
+
+        // Moves to the next tile
+        if (++x == tiles.getColumns()) {
+            x = 0;
+            runStart = 0;
+            y++;
+        }
+    }
+
+    /**
+     * Sets the parent directions of the tiles and sets the finished flag.
+     */
+    private void finish() {
+        tiles.setRoot(0, 0, Direction.UP);
+        finished = true;
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.pascualex.mazegenerator.maze.algorithms;
+
+import com.github.pascualex.mazegenerator.maze.components.Direction;
+import com.github.pascualex.mazegenerator.maze.components.PackedGrid;
+import com.github.pascualex.mazegenerator.maze.components.TileType;
+
+/**
+ * This class defines an algorithm that fills the tiles with the rows of an Eller stream, one row
+ * per step, showing how a streamed maze is received. The resulting maze is the same one that the
+ * Eller algorithm builds for the same seed.
+ * @author Alejandro Pascual
+ */
+public class StreamedEllerAlgorithm implements MazeGenerationAlgorithm {
+    private PackedGrid tiles;
+    private EllerStream stream;
+
+    private int row;
+    private boolean focused;
+
+    private boolean finished;
+
+    /**
+     * Creates the stream of rows with the dimensions of the tiles.
+     * @param tiles The tiles over which the maze will be built.
+     * @param seed The seed from which the maze is built.
+     */
+    @Override
+    public void restart(PackedGrid tiles, long seed) {
+        this.tiles = tiles;
+        stream = new EllerStream(tiles.getColumns(), tiles.getRows(), seed);
+
+        row = 0;
+        focused = false;
+        finished = false;
+    }
+
+    /**
+     * Receives the next row of the stream, focusing it.
+     */
+    @Override
+    public void step() {
+        if (finished) return;
+
+        // Removes the focus from the row received in the previous step
+        if (focused) setRowType(row-1, TileType.FLOOR);
+        focused = false;
+
+        // Checks if the stream is finished
+        if (!stream.hasNextRow()) {
+            finish();
+            return;
+        }
+
+        receiveRow();
+        setRowType(row-1, TileType.FOCUS);
+        focused = true;
+    }
+
+    /**
+     * Receives the rest of the rows of the stream in a single loop.
+     */
+    @Override
+    public void generateFully() {
+        if (finished) return;
+
+        if (focused) setRowType(row-1, TileType.FLOOR);
+        focused = false;
+        while (stream.hasNextRow()) {
+            receiveRow();
+            setRowType(row-1, TileType.FLOOR);
+        }
+        finish();
+    }
+
+    /**
+     * Returns the finished flag.
+     * @return The finished flag.
+     */
+    @Override
+    public boolean getFinished() {
+        return finished;
+    }
+
+    /**
+     * Copies the passages of the next row of the stream to the tiles.
+     */
+    private void receiveRow() {
+        byte[] masks = stream.nextRow();
+        for (int x = 0; x < masks.length; x++) tiles.setOpenMask(x, row, masks[x]);
+        row++;
+    }
+
+    /**
+     * Sets the type of all the tiles of a row.
+     * @param y The row of the tiles.
+     * @param type The new type of the tiles.
+     */
+    private void setRowType(int y, TileType type) {
+        for (int x = 0; x < tiles.getColumns(); x++) tiles.setType(x, y, type);
+    }
+
+    /**
+     * Sets the parent directions of the tiles, releases the stream and sets the finished flag.
+     */
+    private void finish() {
+        tiles.setRoot(0, 0, Direction.UP);
+        stream = null;
+        finished = true;
+    }
+}
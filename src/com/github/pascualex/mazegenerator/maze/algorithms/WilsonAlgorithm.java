@@ -0,0 +1,211 @@
+package com.github.pascualex.mazegenerator.maze.algorithms;
+
+import com.github.pascualex.mazegenerator.maze.components.Direction;
+import com.github.pascualex.mazegenerator.maze.components.PackedGrid;
+import com.github.pascualex.mazegenerator.maze.components.TileType;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class defines Wilson's algorithm. Starting from a random tile, random walks are performed
+ * from the tiles that aren't part of the maze until they reach it, and the walk, with its loops
+ * erased, is added to the maze. The direction in which the walk left each tile is stored as its
+ * parent direction, so the last exit of a tile always points to the loop-erased path.
+ * @author Alejandro Pascual
+ */
+public class WilsonAlgorithm implements MazeGenerationAlgorithm {
+    private static final Direction[] DIRECTIONS = {
+        Direction.UP, Direction.RIGHT, Direction.DOWN, Direction.LEFT
+    };
+
+    private PackedGrid tiles;
+    private SplittableRandom random;
+
+    private int nextStart;
+    private int walkStart;
+    private int current;
+    private boolean walking;
+
+    private boolean finished;
+
+    /**
+     * Adds a random tile to the maze.
+     * @param tiles The tiles over which the maze will be built.
+     * @param seed The seed from which the maze is built.
+     */
+    @Override
+    public void restart(PackedGrid tiles, long seed) {
+        this.tiles = tiles;
+        random = new SplittableRandom(seed);
+
+        int start = random.nextInt(tiles.getColumns()*tiles.getRows());
+        tiles.setType(start%tiles.getColumns(), start/tiles.getColumns(), TileType.FLOOR);
+
+        nextStart = 0;
+        walking = false;
+        finished = false;
+    }
+
+    /**
+     * Starts a new walk or advances the current one, focusing the tiles of the walk. When a loop is
+     * closed, the tiles of the loop are erased, and when the maze is reached, the walk is added to
+     * it.
+     */
+    @Override
+    public void step() {
+        if (finished) return;
+
+        // If there is no walk, starts a new one
+        if (!walking) {
+            if (!startWalk()) return;
+            tiles.setType(current%tiles.getColumns(), current/tiles.getColumns(), TileType.FOCUS);
+            return;
+        }
+
+        // Advances the walk and checks the type of the new tile
+        int next = walk();
+        int columns = tiles.getColumns();
+        TileType type = tiles.getType(next%columns, next/columns);
+        if (type == TileType.FLOOR) {
+            addWalk();
+        } else if (type == TileType.FOCUS) {
+            // Erases the loop, following the exits from the repeated tile
+            int i = follow(next);
+            while (i != next) {
+                int following = follow(i);
+                tiles.setType(i%columns, i/columns, TileType.WALL);
+                tiles.setParentDirection(i%columns, i/columns, Direction.NONE);
+                i = following;
+            }
+            current = next;
+        } else {
+            tiles.setType(next%columns, next/columns, TileType.FOCUS);
+            current = next;
+        }
+    }
+
+    /**
+     * Performs all the remaining walks in a single loop. The loops aren't erased explicitly, since
+     * the tiles of the walk aren't marked and adding it only follows the last exit of each tile.
+     */
+    @Override
+    public void generateFully() {
+        if (finished) return;
+
+        // Removes the marks of the current walk, keeping its exits
+        int columns = tiles.getColumns();
+        if (walking) {
+            int i = walkStart;
+            tiles.setType(i%columns, i/columns, TileType.WALL);
+            while (i != current) {
+                i = follow(i);
+                tiles.setType(i%columns, i/columns, TileType.WALL);
+            }
+        }
+
+        while (walking || startWalk()) {
+            int next = walk();
+            if (tiles.getType(next%columns, next/columns) == TileType.FLOOR) addWalk();
+            else current = next;
+        }
+    }
+
+    /**
+     * Returns the finished flag.
+     * @return The finished flag.
+     */
+    @Override
+    public boolean getFinished() {
+        return finished;
+    }
+
+    /**
+     * Looks for the next tile that isn't part of the maze and starts a walk from it. If there are
+     * none left, finishes the algorithm.
+     * @return If a new walk was started.
+     */
+    private boolean startWalk() {
+        int columns = tiles.getColumns();
+        int size = columns*tiles.getRows();
+        while (nextStart < size
+               && tiles.getType(nextStart%columns, nextStart/columns) != TileType.WALL) {
+            nextStart++;
+        }
+
+        // If every tile is part of the maze, finishes
+        if (nextStart == size) {
+            tiles.setRoot(0, 0, Direction.UP);
+            finished = true;
+            return false;
+        }
+
+        walkStart = nextStart;
+        current = nextStart;
+        walking = true;
+        return true;
+    }
+
+    /**
+     * Leaves the current tile of the walk in a random direction inside the grid, storing that
+     * direction in the tile.
+     * @return The index of the tile reached.
+     */
+    private int walk() {
+        int columns = tiles.getColumns();
+        int x = current%columns;
+        int y = current/columns;
+
+        // Counts the directions that lead to a tile inside the grid
+        int count = 0;
+        for (Direction direction : DIRECTIONS) {
+            if (isInside(x+direction.getX(), y+direction.getY())) count++;
+        }
+
+        // Takes a random one of them
+        int skip = random.nextInt(count);
+        for (Direction direction : DIRECTIONS) {
+            if (isInside(x+direction.getX(), y+direction.getY()) && skip-- == 0) {
+                tiles.setParentDirection(x, y, direction);
+                return (y+direction.getY())*columns+x+direction.getX();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Adds the walk to the maze, following the last exit of each tile from the start of the walk
+     * until the maze is reached.
+     */
+    private void addWalk() {
+        int columns = tiles.getColumns();
+        int i = walkStart;
+        while (tiles.getType(i%columns, i/columns) != TileType.FLOOR) {
+            Direction direction = tiles.getParentDirection(i%columns, i/columns);
+            tiles.setType(i%columns, i/columns, TileType.FLOOR);
+            tiles.carve(i%columns, i/columns, direction);
+            i = follow(i);
+        }
+        walking = false;
+    }
+
+    /**
+     * Returns the tile reached by following the last exit of a tile.
+     * @param i The index of the tile.
+     * @return The index of the tile reached.
+     */
+    private int follow(int i) {
+        int columns = tiles.getColumns();
+        Direction direction = tiles.getParentDirection(i%columns, i/columns);
+        return i+direction.getY()*columns+direction.getX();
+    }
+
+    /**
+     * Returns if a position is inside the grid.
+     * @param x The column of the position.
+     * @param y The row of the position.
+     * @return If the position is inside the grid.
+     */
+    private boolean isInside(int x, int y) {
+        return x >= 0 && x < tiles.getColumns() && y >= 0 && y < tiles.getRows();
+    }
+}
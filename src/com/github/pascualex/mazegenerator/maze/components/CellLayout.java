@@ -0,0 +1,23 @@
+package com.github.pascualex.mazegenerator.maze.components;
+
+/**
+ * This enumeration defines the orders in which a packed grid can store its tiles in memory. The
+ * layout only changes where each tile is stored, so the same seed builds the same maze with any of
+ * them.
+ * @author Alejandro Pascual
+ */
+public enum CellLayout {
+
+    /**
+     * The tiles are stored row after row, so the neighbours above and below a tile are a whole row
+     * away.
+     */
+    ROW_MAJOR,
+
+    /**
+     * The tiles are stored in square blocks of 8x8 tiles, row after row of blocks, and the tiles of
+     * each block in Z-order (Morton order). Most neighbours share a block, whose 64 tiles take only
+     * four cache lines.
+     */
+    TILED
+}
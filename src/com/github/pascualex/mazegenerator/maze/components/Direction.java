@@ -1,47 +1,54 @@
 package com.github.pascualex.mazegenerator.maze.components;
 
 /**
- * This enumeration defines the directions and their coordinates.
+ * This enumeration defines the directions, their coordinates and their bits in the passage masks
+ * of the tiles, from the lowest bit, up, right, down and left. The bits are placed so the opposite
+ * of a direction is two bits away, which lets masks of directions be turned around with a rotation.
  * @author Alejandro Pascual
  */
 public enum Direction {
 
     /**
-     * No direction is specified, its coordinates are (0, 0).
+     * No direction is specified, its coordinates are (0, 0) and it has no bit.
      */
-    NONE(0, 0),
+    NONE(0, 0, 0),
 
     /**
      * Up direction, its coordinates are (0, -1).
      */
-    UP(0, -1),
+    UP(0, -1, 1),
 
     /**
      * Right direction, its coordinates are (1, 0).
      */
-    RIGHT(1, 0),
+    RIGHT(1, 0, 2),
 
     /**
      * Down direction, its coordinates are (0, 1).
      */
-    DOWN(0, 1),
+    DOWN(0, 1, 4),
 
     /**
      * Left direction, its coordinates are (-1, 0).
      */
-    LEFT(-1, 0);
+    LEFT(-1, 0, 8);
+
+    private static final Direction[] BITS = {NONE, UP, RIGHT, NONE, DOWN, NONE, NONE, NONE, LEFT};
 
     private final int x;
     private final int y;
+    private final int bit;
 
     /**
-     * Instantiates a direction given its x and y coordinates.
+     * Instantiates a direction given its x and y coordinates and its bit.
      * @param x The x coordinate of the direction.
      * @param y The y coordinate of the direction.
+     * @param bit The bit of the direction in the passage masks.
      */
-    private Direction(int x, int y) {
+    private Direction(int x, int y, int bit) {
         this.x = x;
         this.y = y;
+        this.bit = bit;
     }
 
     /**
@@ -60,16 +67,38 @@ public enum Direction {
         return y;
     }
 
+    /**
+     * Returns the bit of the direction in the passage masks.
+     * @return The bit of the direction, or 0 for no direction.
+     */
+    public int getBit() {
+        return bit;
+    }
+
     /**
      * Returns the opposite direction of the one passed as a parameter.
      * @param direction The direction for which to get the opposite.
      * @return The opposite direction of the one passed as a parameter.
      */
     public static Direction getOpposite(Direction direction) {
-        if (direction == UP) return DOWN;
-        else if (direction == RIGHT) return LEFT;
-        else if (direction == DOWN) return UP;
-        else if (direction == LEFT) return RIGHT;
-        else return NONE;
+        return BITS[getOpposite(direction.bit)];
+    }
+
+    /**
+     * Returns the mask of the opposite directions of the ones in a mask.
+     * @param mask The mask of directions.
+     * @return The mask of the opposite directions.
+     */
+    public static int getOpposite(int mask) {
+        return (mask << 2 | mask >>> 2) & 0xF;
+    }
+
+    /**
+     * Returns the direction of a bit of the passage masks.
+     * @param bit The bit of the direction, which must be a single bit, or 0 for no direction.
+     * @return The direction of the bit.
+     */
+    public static Direction fromBit(int bit) {
+        return BITS[bit];
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.github.pascualex.mazegenerator.maze.components;
+
+/**
+ * This interface defines a read-only access to the tiles that make up the maze. The passages of
+ * each tile are a mask of four bits, which alone define how the tiles are connected, so mazes with
+ * loops can be represented. The parent directions are only the tree the algorithms search with.
+ * @author Alejandro Pascual
+ */
+public interface Grid {
+
+    /**
+     * Returns the number of columns of the grid.
+     * @return The number of columns of the grid.
+     */
+    int getColumns();
+
+    /**
+     * Returns the number of rows of the grid.
+     * @return The number of rows of the grid.
+     */
+    int getRows();
+
+    /**
+     * Returns the type of a tile.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @return The type of the tile.
+     */
+    TileType getType(int x, int y);
+
+    /**
+     * Returns the direction of the parent of a tile, relative to that tile, in the tree searched by
+     * the algorithm that built the maze.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @return The direction of the parent of the tile.
+     */
+    Direction getParentDirection(int x, int y);
+
+    /**
+     * Returns if there is a passage from a tile to its neighbour in the given direction.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @param direction The direction of the neighbour.
+     * @return If there is a passage to the neighbour.
+     */
+    boolean isOpen(int x, int y, Direction direction);
+
+    /**
+     * Returns the passages of a tile as a mask with one bit for each direction, from the lowest
+     * bit, up, right, down and left, as given by Direction.getBit.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @return The mask of the passages of the tile.
+     */
+    int getOpenMask(int x, int y);
+}
@@ -0,0 +1,608 @@
+package com.github.pascualex.mazegenerator.maze.components;
+
+import java.util.Arrays;
+
+/**
+ * This class defines a grid that stores the state of all the tiles of the maze packed in a single
+ * array of integers, in the order given by its cell layout. Each integer holds the type of the
+ * tile, the direction of its parent, the directions that haven't been tried yet and the directions
+ * in which there is a passage to the neighbour tile. The order in which the directions of a tile
+ * are tried is one of the 24 possible permutations, derived from the seed of the grid and the
+ * position of the tile the first time a direction is requested. The grid also records which tiles
+ * changed in a way that affects how they are painted, so only those need to be repainted.
+ * @author Alejandro Pascual
+ */
+public class PackedGrid implements Grid {
+    private static final int TYPE_SHIFT = 0;
+    private static final int TYPE_MASK = 0x7;
+    private static final int PARENT_SHIFT = 3;
+    private static final int PARENT_MASK = 0x7;
+    private static final int REMAINING_SHIFT = 6;
+    private static final int REMAINING_MASK = 0xF;
+    private static final int ORDER_SHIFT = 10;
+    private static final int ORDER_MASK = 0x1F;
+    private static final int OPEN_SHIFT = 16;
+    private static final int OPEN_MASK = 0xF;
+    private static final int DIRTY_BIT = 1 << 20;
+    public static final int DIRTY_CAPACITY = 1 << 14;
+    public static final int MAX_TILES = Integer.MAX_VALUE-8;
+    private static final int BLOCK_SIDE = 8;
+    private static final int BLOCK_X_BITS = 0x15;
+    private static final int BLOCK_Y_BITS = 0x2A;
+
+    private static final TileType[] TYPES = TileType.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int[] ORDERS = createOrders();
+    private static final byte[] FIRST_DIRECTIONS = createFirstDirections();
+    private static final int[] BLOCK_NEIGHBOURS = createBlockNeighbours();
+    private static final int[] PARENT_FIELDS = createParentFields();
+
+    private static final int INITIAL_TILE = TileType.WALL.ordinal() << TYPE_SHIFT
+                                          | Direction.NONE.ordinal() << PARENT_SHIFT
+                                          | REMAINING_MASK << REMAINING_SHIFT;
+
+    private final int columns;
+    private final int rows;
+    private final CellLayout layout;
+    private final boolean tiled;
+    private final int blockColumns;
+    private final int[] tiles;
+    private final int[] offsets;
+    private final int[] blockOffsets;
+    private long seed;
+
+    private final int[] dirty;
+    private int dirtySize;
+    private boolean allDirty;
+
+    private int builtTiles;
+
+    /**
+     * Instantiates a grid given its dimensions and seed, with all its tiles as walls with no parent
+     * direction and all their directions remaining, stored row after row.
+     * @param columns The number of columns of the grid.
+     * @param rows The number of rows of the grid.
+     * @param seed The seed from which the order of the directions of the tiles is derived.
+     */
+    public PackedGrid(int columns, int rows, long seed) {
+        this(columns, rows, seed, CellLayout.ROW_MAJOR);
+    }
+
+    /**
+     * Instantiates a grid given its dimensions, seed and cell layout, with all its tiles as walls
+     * with no parent direction and all their directions remaining. The tiled layout rounds the
+     * storage up to whole blocks.
+     * @param columns The number of columns of the grid.
+     * @param rows The number of rows of the grid.
+     * @param seed The seed from which the order of the directions of the tiles is derived.
+     * @param layout The order in which the tiles are stored.
+     * @throws IllegalArgumentException If the grid stores more than MAX_TILES tiles.
+     */
+    public PackedGrid(int columns, int rows, long seed, CellLayout layout) {
+        if (getStorageSize(columns, rows, layout) > MAX_TILES) {
+            throw new IllegalArgumentException("Too many tiles: " + columns + "x" + rows);
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.layout = layout;
+
+        tiled = layout == CellLayout.TILED;
+        if (tiled) {
+            blockColumns = (columns+BLOCK_SIDE-1)/BLOCK_SIDE;
+            int blockRows = (rows+BLOCK_SIDE-1)/BLOCK_SIDE;
+            tiles = new int[blockColumns*blockRows*BLOCK_SIDE*BLOCK_SIDE];
+        } else {
+            blockColumns = 0;
+            tiles = new int[columns*rows];
+        }
+        offsets = new int[] {0, -columns, 1, 0, columns, 0, 0, 0, -1};
+        blockOffsets = new int[] {0, -blockColumns, 1, 0, blockColumns, 0, 0, 0, -1};
+        dirty = new int[Math.min(DIRTY_CAPACITY, columns*rows)];
+        clear(seed);
+    }
+
+    /**
+     * Returns the number of tiles a grid stores, including the ones that round the tiled layout up
+     * to whole blocks. It must not be greater than MAX_TILES, the largest array the virtual
+     * machine can allocate.
+     * @param columns The number of columns of the grid.
+     * @param rows The number of rows of the grid.
+     * @param layout The order in which the tiles are stored.
+     * @return The number of tiles stored.
+     */
+    public static long getStorageSize(int columns, int rows, CellLayout layout) {
+        if (layout != CellLayout.TILED) return (long) columns*rows;
+
+        long blockColumns = ((long) columns+BLOCK_SIDE-1)/BLOCK_SIDE;
+        long blockRows = ((long) rows+BLOCK_SIDE-1)/BLOCK_SIDE;
+        return blockColumns*blockRows*BLOCK_SIDE*BLOCK_SIDE;
+    }
+
+    /**
+     * Resets all the tiles to their initial state and changes the seed of the grid, reusing the
+     * storage of the tiles.
+     * @param seed The new seed from which the order of the directions of the tiles is derived.
+     */
+    public void clear(long seed) {
+        this.seed = seed;
+        Arrays.fill(tiles, INITIAL_TILE);
+        builtTiles = 0;
+
+        dirtySize = 0;
+        allDirty = true;
+    }
+
+    /**
+     * Records that a tile has changed, unless it's already recorded. If too many tiles change, the
+     * whole grid is recorded as changed instead.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     */
+    public void markDirty(int x, int y) {
+        markDirty(getIndex(x, y));
+    }
+
+    /**
+     * Records that the whole grid has changed, so changes to the tiles aren't recorded until the
+     * next call to takeDirtyTiles. It must be called before the tiles are changed from several
+     * threads, since the list of changed tiles isn't synchronized.
+     */
+    public void markAllDirty() {
+        allDirty = true;
+    }
+
+    /**
+     * Records that a tile has changed given its index, unless it's already recorded.
+     * @param i The index of the tile.
+     */
+    private void markDirty(int i) {
+        if (allDirty) return;
+
+        if ((tiles[i] & DIRTY_BIT) != 0) return;
+        if (dirtySize == dirty.length) {
+            allDirty = true;
+            return;
+        }
+        tiles[i] |= DIRTY_BIT;
+        dirty[dirtySize++] = i;
+    }
+
+    /**
+     * Copies the indices of the tiles that changed since the last call and forgets them.
+     * @param indices The array where the indices are copied, which must fit DIRTY_CAPACITY
+     *                indices.
+     * @return The number of tiles that changed, or -1 if the whole grid must be considered changed.
+     */
+    public int takeDirtyTiles(int[] indices) {
+        for (int k = 0; k < dirtySize; k++) {
+            indices[k] = getRowMajorIndex(dirty[k]);
+            tiles[dirty[k]] &= ~DIRTY_BIT;
+        }
+        int count = allDirty ? -1 : dirtySize;
+
+        dirtySize = 0;
+        allDirty = false;
+        return count;
+    }
+
+    /**
+     * Returns the number of tiles that aren't walls, which are the tiles already reached by the
+     * algorithm.
+     * @return The number of tiles that aren't walls.
+     */
+    public int getBuiltTiles() {
+        return builtTiles;
+    }
+
+    /**
+     * Sets the number of tiles that aren't walls. It must be called after the tiles are built from
+     * several threads, since the count isn't synchronized and loses their updates.
+     * @param builtTiles The number of tiles that aren't walls.
+     */
+    public void setBuiltTiles(int builtTiles) {
+        this.builtTiles = builtTiles;
+    }
+
+    /**
+     * Returns the number of columns of the grid.
+     * @return The number of columns of the grid.
+     */
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of rows of the grid.
+     * @return The number of rows of the grid.
+     */
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the order in which the tiles are stored.
+     * @return The cell layout of the grid.
+     */
+    public CellLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Returns the index where a tile is stored, which is the one the methods that work with indices
+     * take. It's y*columns+x only in the row-major layout.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @return The index of the tile.
+     */
+    public int getIndex(int x, int y) {
+        if (!tiled) return y*columns+x;
+
+        // Places the block row after row and the tile inside its block in Z-order
+        int block = (y >>> 3)*blockColumns+(x >>> 3);
+        return block << 6 | spread(x & 7) | spread(y & 7) << 1;
+    }
+
+    /**
+     * Returns the index of the neighbour of a tile in the given direction, which must be inside
+     * the grid.
+     * @param i The index of the tile.
+     * @param bit The bit of the direction of the neighbour.
+     * @return The index of the neighbour.
+     */
+    public int getNeighbour(int i, int bit) {
+        if (!tiled) return i+offsets[bit];
+
+        // Looks up the tile inside the block and if the neighbour is in the next block
+        int neighbour = BLOCK_NEIGHBOURS[bit << 6 | (i & 0x3F)];
+        return ((i >>> 6)+(neighbour >>> 6)*blockOffsets[bit]) << 6 | (neighbour & 0x3F);
+    }
+
+    /**
+     * Returns the row-major index, y*columns+x, of a tile given the index where it's stored.
+     * @param i The index of the tile.
+     * @return The row-major index of the tile.
+     */
+    private int getRowMajorIndex(int i) {
+        if (!tiled) return i;
+
+        int block = i >>> 6;
+        int blockY = block/blockColumns;
+        int x = (block-blockY*blockColumns) << 3 | compact(i);
+        int y = blockY << 3 | compact(i >>> 1);
+        return y*columns+x;
+    }
+
+    /**
+     * Spreads the three lowest bits of a coordinate to the even bits, to interleave it.
+     * @param value The coordinate, from 0 to 7.
+     * @return The spread bits.
+     */
+    private static int spread(int value) {
+        return (value & 1) | (value & 2) << 1 | (value & 4) << 2;
+    }
+
+    /**
+     * Gathers the even bits of an interleaved index into the three lowest bits.
+     * @param value The interleaved index.
+     * @return The gathered coordinate, from 0 to 7.
+     */
+    private static int compact(int value) {
+        return (value & 1) | (value >>> 1 & 2) | (value >>> 2 & 4);
+    }
+
+    /**
+     * Returns the type of a tile.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @return The type of the tile.
+     */
+    @Override
+    public TileType getType(int x, int y) {
+        return TYPES[(tiles[getIndex(x, y)] >>> TYPE_SHIFT) & TYPE_MASK];
+    }
+
+    /**
+     * Sets the type of a tile.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @param type The new type of the tile.
+     */
+    public void setType(int x, int y, TileType type) {
+        int i = getIndex(x, y);
+
+        // Counts the tiles that stop or start being walls
+        boolean wasWall = ((tiles[i] >>> TYPE_SHIFT) & TYPE_MASK) == TileType.WALL.ordinal();
+        if (wasWall != (type == TileType.WALL)) builtTiles += wasWall ? 1 : -1;
+
+        tiles[i] = (tiles[i] & ~(TYPE_MASK << TYPE_SHIFT)) | type.ordinal() << TYPE_SHIFT;
+        markDirty(x, y);
+    }
+
+    /**
+     * Returns the direction of the parent of a tile, relative to that tile.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @return The direction of the parent of the tile.
+     */
+    @Override
+    public Direction getParentDirection(int x, int y) {
+        return DIRECTIONS[(tiles[getIndex(x, y)] >>> PARENT_SHIFT) & PARENT_MASK];
+    }
+
+    /**
+     * Sets the direction of the parent of a tile, relative to that tile.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @param parentDirection The new direction of the parent of the tile.
+     */
+    public void setParentDirection(int x, int y, Direction parentDirection) {
+        int i = getIndex(x, y);
+        tiles[i] = (tiles[i] & ~(PARENT_MASK << PARENT_SHIFT))
+                 | parentDirection.ordinal() << PARENT_SHIFT;
+        markDirty(x, y);
+    }
+
+    /**
+     * Returns if there is a passage from a tile to its neighbour in the given direction.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @param direction The direction of the neighbour.
+     * @return If there is a passage to the neighbour.
+     */
+    @Override
+    public boolean isOpen(int x, int y, Direction direction) {
+        return (tiles[getIndex(x, y)] & direction.getBit() << OPEN_SHIFT) != 0;
+    }
+
+    /**
+     * Returns the passages of a tile as a mask with one bit for each direction, from the lowest
+     * bit, up, right, down and left.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @return The mask of the passages of the tile.
+     */
+    @Override
+    public int getOpenMask(int x, int y) {
+        return (tiles[getIndex(x, y)] >>> OPEN_SHIFT) & OPEN_MASK;
+    }
+
+    /**
+     * Sets the passages of a tile from a mask with one bit for each direction, from the lowest bit,
+     * up, right, down and left. The neighbour tiles aren't updated.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @param mask The new mask of the passages of the tile.
+     */
+    public void setOpenMask(int x, int y, int mask) {
+        int i = getIndex(x, y);
+        tiles[i] = (tiles[i] & ~(OPEN_MASK << OPEN_SHIFT)) | (mask & OPEN_MASK) << OPEN_SHIFT;
+        markDirty(x, y);
+    }
+
+    /**
+     * Opens a passage between a tile and its neighbour in the given direction, which must be
+     * inside the grid.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @param direction The direction of the neighbour.
+     */
+    public void carve(int x, int y, Direction direction) {
+        int bit = direction.getBit();
+        tiles[getIndex(x, y)] |= bit << OPEN_SHIFT;
+        tiles[getIndex(x+direction.getX(), y+direction.getY())] |=
+            Direction.getOpposite(bit) << OPEN_SHIFT;
+        markDirty(x, y);
+        markDirty(x+direction.getX(), y+direction.getY());
+    }
+
+    /**
+     * Sets the parent directions of all the tiles so they lead to the given tile through the open
+     * passages. The passages must form a spanning tree, as they do in a perfect maze.
+     * @param x The column of the root tile.
+     * @param y The row of the root tile.
+     * @param parentDirection The parent direction of the root tile.
+     */
+    public void setRoot(int x, int y, Direction parentDirection) {
+        setParentDirection(x, y, parentDirection);
+
+        // Traverses the tree depth first, using the parent directions as the stack
+        int rootX = x;
+        int rootY = y;
+        int next = 1;
+        while (true) {
+            // Looks for the next child of the current tile, among the passages from the next bit
+            Direction parent = getParentDirection(x, y);
+            int children = getOpenMask(x, y) & ~parent.getBit() & -next;
+
+            // If there is a child, advances to it
+            if (children != 0) {
+                int child = children & -children;
+                Direction direction = Direction.fromBit(child);
+                x += direction.getX();
+                y += direction.getY();
+                setParentDirection(x, y, Direction.fromBit(Direction.getOpposite(child)));
+                next = 1;
+                continue;
+            }
+
+            // If there are no children left, returns to the parent
+            if (x == rootX && y == rootY) return;
+            x += parent.getX();
+            y += parent.getY();
+            next = Direction.getOpposite(parent.getBit()) << 1;
+        }
+    }
+
+    /**
+     * Returns the next direction of a tile that hasn't been tried yet, removing it from the
+     * remaining directions, or null if all of them have been tried.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @return A direction that hadn't been tried yet.
+     */
+    public Direction getDirection(int x, int y) {
+        int bit = takeDirection(getIndex(x, y), OPEN_MASK);
+        return bit != 0 ? Direction.fromBit(bit) : null;
+    }
+
+    /**
+     * Returns the bit of the first direction of a tile that hasn't been tried yet among the allowed
+     * ones, in the order of the tile, removing it from the remaining directions. If none of them is
+     * allowed, all the remaining directions are removed, since they would be skipped anyway.
+     * @param i The index of the tile.
+     * @param allowed The mask of the allowed directions.
+     * @return The bit of the direction, or 0 if no remaining direction is allowed.
+     */
+    public int takeDirection(int i, int allowed) {
+        int tile = tiles[i];
+        int remaining = (tile >>> REMAINING_SHIFT) & REMAINING_MASK;
+
+        // Derives the order of the directions if this is the first time it's needed
+        int order = (tile >>> ORDER_SHIFT) & ORDER_MASK;
+        if (order == 0) {
+            order = getOrder(getRowMajorIndex(i));
+            tile |= order << ORDER_SHIFT;
+        }
+
+        // Looks up the first allowed direction in the order of the tile
+        int bit = FIRST_DIRECTIONS[(order-1) << 4 | (remaining & allowed)];
+        tiles[i] = tile & ~((bit != 0 ? bit : remaining) << REMAINING_SHIFT);
+        return bit;
+    }
+
+    /**
+     * Returns if a tile is a wall, given its index.
+     * @param i The index of the tile.
+     * @return If the tile is a wall.
+     */
+    public boolean isWall(int i) {
+        return ((tiles[i] >>> TYPE_SHIFT) & TYPE_MASK) == TileType.WALL.ordinal();
+    }
+
+    /**
+     * Advances from a tile to its neighbour in the given direction in a single update: opens the
+     * passage between them and makes the neighbour a floor tile whose parent is the tile, with the
+     * direction back to it removed from its remaining directions.
+     * @param i The index of the tile.
+     * @param bit The bit of the direction of the neighbour, which must be inside the grid.
+     * @return The index of the neighbour.
+     */
+    public int advance(int i, int bit) {
+        int j = getNeighbour(i, bit);
+        int opposite = Direction.getOpposite(bit);
+        int tile = tiles[j];
+        if (((tile >>> TYPE_SHIFT) & TYPE_MASK) == TileType.WALL.ordinal()) builtTiles++;
+
+        tiles[i] |= bit << OPEN_SHIFT;
+        tiles[j] = (tile & ~(TYPE_MASK << TYPE_SHIFT | PARENT_MASK << PARENT_SHIFT
+                             | opposite << REMAINING_SHIFT))
+                 | TileType.FLOOR.ordinal() << TYPE_SHIFT
+                 | PARENT_FIELDS[opposite]
+                 | opposite << OPEN_SHIFT;
+        markDirty(i);
+        markDirty(j);
+        return j;
+    }
+
+    /**
+     * Removes a direction from the remaining directions of a tile if it's still present.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @param direction The direction that won't be tried.
+     */
+    public void removeDirection(int x, int y, Direction direction) {
+        tiles[getIndex(x, y)] &= ~(direction.getBit() << REMAINING_SHIFT);
+    }
+
+    /**
+     * Returns the order of the directions of a tile, as an index starting at 1 over all the
+     * possible orders, derived by mixing the seed of the grid and the index of the tile.
+     * @param i The index of the tile.
+     * @return The order of the directions of the tile.
+     */
+    private int getOrder(int i) {
+        long z = seed+(i+1)*0x9E3779B97F4A7C15L;
+        z = (z^(z >>> 30))*0xBF58476D1CE4E5B9L;
+        z = (z^(z >>> 27))*0x94D049BB133111EBL;
+        z = z^(z >>> 31);
+        return (int) ((z >>> 1)%ORDERS.length)+1;
+    }
+
+    /**
+     * Creates the table of the parent fields of the tiles, indexed by the bit of the parent
+     * direction, so the field doesn't depend on the order in which the directions are declared.
+     * @return The parent directions shifted into their field.
+     */
+    private static int[] createParentFields() {
+        int[] fields = new int[9];
+        for (Direction direction : DIRECTIONS) {
+            fields[direction.getBit()] = direction.ordinal() << PARENT_SHIFT;
+        }
+        return fields;
+    }
+
+    /**
+     * Creates the 24 possible orders of the four directions. Each order packs the bit indices of
+     * the directions in groups of two bits, starting with the first direction to try.
+     * @return The possible orders of the directions.
+     */
+    private static int[] createOrders() {
+        int[] orders = new int[24];
+        int n = 0;
+        for (int a = 0; a < 4; a++) {
+            for (int b = 0; b < 4; b++) {
+                for (int c = 0; c < 4; c++) {
+                    if (a == b || a == c || b == c) continue;
+                    int d = 6-a-b-c;
+                    orders[n++] = a | b << 2 | c << 4 | d << 6;
+                }
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Creates the table of the first direction of each order present in each mask of directions,
+     * indexed by the index of the order times 16 plus the mask.
+     * @return The bits of the first directions, or 0 for the empty masks.
+     */
+    private static byte[] createFirstDirections() {
+        byte[] first = new byte[ORDERS.length << 4];
+        for (int order = 0; order < ORDERS.length; order++) {
+            for (int mask = 1; mask < 16; mask++) {
+                int directions = ORDERS[order];
+                while (((1 << (directions & 0x3)) & mask) == 0) directions >>>= 2;
+                first[order << 4 | mask] = (byte) (1 << (directions & 0x3));
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Creates the table of the neighbours of the tiles of a block in Z-order, indexed by the bit of
+     * the direction times 64 plus the index of the tile inside its block. Each entry holds the
+     * index of the neighbour inside its block, and 1 above those bits if the neighbour is in the
+     * next block in that direction.
+     * @return The neighbours of the tiles of a block.
+     */
+    private static int[] createBlockNeighbours() {
+        int[] neighbours = new int[9 << 6];
+        for (int low = 0; low < 64; low++) {
+            int x = low & BLOCK_X_BITS;
+            int y = low & BLOCK_Y_BITS;
+            int up = ((y-1) & BLOCK_Y_BITS) | x;
+            int right = ((x | BLOCK_Y_BITS)+1) & BLOCK_X_BITS | y;
+            int down = ((y | BLOCK_X_BITS)+1) & BLOCK_Y_BITS | x;
+            int left = ((x-1) & BLOCK_X_BITS) | y;
+
+            // Marks the neighbours that wrap around their block, which are in the next one
+            neighbours[1 << 6 | low] = y == 0 ? 1 << 6 | up : up;
+            neighbours[2 << 6 | low] = x == BLOCK_X_BITS ? 1 << 6 | right : right;
+            neighbours[4 << 6 | low] = y == BLOCK_Y_BITS ? 1 << 6 | down : down;
+            neighbours[8 << 6 | low] = x == 0 ? 1 << 6 | left : left;
+        }
+        return neighbours;
+    }
+}
\ No newline at end of file
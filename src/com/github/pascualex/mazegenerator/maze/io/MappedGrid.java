@@ -0,0 +1,171 @@
+package com.github.pascualex.mazegenerator.maze.io;
+
+import com.github.pascualex.mazegenerator.maze.algorithms.AlgorithmType;
+import com.github.pascualex.mazegenerator.maze.components.Direction;
+import com.github.pascualex.mazegenerator.maze.components.Grid;
+import com.github.pascualex.mazegenerator.maze.components.TileType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * This class defines a read-only access to the tiles of a saved maze, reading them directly from
+ * its file mapped into memory. Opening a maze is instant whatever its size, since the operating
+ * system only loads the pages of the file that are accessed. All the tiles are floor tiles without
+ * a parent direction, as in a finished maze that isn't being solved.
+ * @author Alejandro Pascual
+ */
+public class MappedGrid implements Grid {
+    private final MappedByteBuffer buffer;
+
+    private final int columns;
+    private final int rows;
+    private final long seed;
+    private final AlgorithmType algorithmType;
+    private final int checksum;
+
+    /**
+     * Instantiates a mapped grid given the path of a maze file, checking its header.
+     * @param path The path of the file.
+     * @throws IOException If the file can't be read or isn't a valid maze file.
+     */
+    MappedGrid(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        // Checks the header and the size of the body
+        if (buffer.capacity() < MazeFile.HEADER_SIZE || buffer.getInt(0) != MazeFile.MAGIC) {
+            throw new IOException("The file isn't a maze file");
+        }
+        if (buffer.getShort(4) != MazeFile.VERSION || buffer.get(6) != MazeFile.BITS_PER_TILE) {
+            throw new IOException("The version of the maze file isn't supported");
+        }
+        columns = buffer.getInt(8);
+        rows = buffer.getInt(12);
+        if (columns < 1 || rows < 1 || (long) columns*rows > Integer.MAX_VALUE
+            || buffer.capacity() != MazeFile.HEADER_SIZE+MazeFile.getBodySize(columns, rows)) {
+            throw new IOException("The size of the maze file doesn't match its dimensions");
+        }
+
+        algorithmType = AlgorithmType.fromFileCode(buffer.get(7));
+        seed = buffer.getLong(16);
+        checksum = buffer.getInt(24);
+    }
+
+    /**
+     * Reads the whole body and checks it against the checksum of the header.
+     * @return If the body matches the checksum.
+     */
+    public boolean verify() {
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[1 << 16];
+        ByteBuffer body = buffer.duplicate();
+        body.position(MazeFile.HEADER_SIZE);
+        while (body.hasRemaining()) {
+            int length = Math.min(chunk.length, body.remaining());
+            body.get(chunk, 0, length);
+            crc.update(chunk, 0, length);
+        }
+        return (int) crc.getValue() == checksum;
+    }
+
+    /**
+     * Returns the seed from which the maze was built.
+     * @return The seed of the maze.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the algorithm that built the maze.
+     * @return The algorithm type of the maze, or null if it's unknown.
+     */
+    public AlgorithmType getAlgorithmType() {
+        return algorithmType;
+    }
+
+    /**
+     * Returns the number of columns of the grid.
+     * @return The number of columns of the grid.
+     */
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of rows of the grid.
+     * @return The number of rows of the grid.
+     */
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the type of a tile, which is always floor.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @return The type of the tile.
+     */
+    @Override
+    public TileType getType(int x, int y) {
+        return TileType.FLOOR;
+    }
+
+    /**
+     * Returns the direction of the parent of a tile, which isn't stored.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @return No direction.
+     */
+    @Override
+    public Direction getParentDirection(int x, int y) {
+        return Direction.NONE;
+    }
+
+    /**
+     * Returns if there is a passage from a tile to its neighbour in the given direction.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @param direction The direction of the neighbour.
+     * @return If there is a passage to the neighbour.
+     */
+    @Override
+    public boolean isOpen(int x, int y, Direction direction) {
+        return (getOpenMask(x, y) & direction.getBit()) != 0;
+    }
+
+    /**
+     * Returns the passages of a tile as a mask with one bit for each direction, from the lowest
+     * bit, up, right, down and left. The passages up and left are read from the neighbours.
+     * @param x The column of the tile.
+     * @param y The row of the tile.
+     * @return The mask of the passages of the tile.
+     */
+    @Override
+    public int getOpenMask(int x, int y) {
+        int i = y*columns+x;
+        int mask = getBits(i) << 1;
+        if (y > 0) mask |= (getBits(i-columns) & 2) >> 1;
+        if (x > 0) mask |= (getBits(i-1) & 1) << 3;
+        return mask;
+    }
+
+    /**
+     * Returns the two stored bits of a tile, the passage to the right in the lower one and the
+     * passage down in the higher one.
+     * @param i The index of the tile.
+     * @return The bits of the tile.
+     */
+    private int getBits(int i) {
+        return buffer.get(MazeFile.HEADER_SIZE+(i >>> 2)) >> (i & 3)*2 & 3;
+    }
+}
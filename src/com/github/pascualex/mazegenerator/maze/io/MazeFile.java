@@ -0,0 +1,80 @@
+package com.github.pascualex.mazegenerator.maze.io;
+
+import com.github.pascualex.mazegenerator.maze.algorithms.AlgorithmType;
+import com.github.pascualex.mazegenerator.maze.components.Grid;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * This class defines the binary format in which mazes are saved. A file starts with a header of 32
+ * bytes, in big-endian order:
+ * <ul>
+ * <li>0: the magic number, "MAZE" in ASCII.</li>
+ * <li>4: the version of the format, as a short.</li>
+ * <li>6: the bits stored per tile, as a byte.</li>
+ * <li>7: the file code of the algorithm type that built the maze, or -1 if it's unknown.</li>
+ * <li>8: the number of columns, as an int.</li>
+ * <li>12: the number of rows, as an int.</li>
+ * <li>16: the seed from which the maze was built, as a long.</li>
+ * <li>24: the CRC-32 of the body, as an int.</li>
+ * <li>28: reserved, zero.</li>
+ * </ul>
+ * The body stores two bits per tile in row-major order, four tiles per byte, the first one in the
+ * lowest bits. The lower bit tells if the tile has a passage to the right and the higher one if it
+ * has a passage down, since the passages up and left are the ones of the neighbours.
+ * @author Alejandro Pascual
+ */
+public final class MazeFile {
+    static final int MAGIC = 0x4D415A45;
+    static final short VERSION = 1;
+    static final byte BITS_PER_TILE = 2;
+    static final int HEADER_SIZE = 32;
+
+    /**
+     * Prevents the instantiation of the class.
+     */
+    private MazeFile() {
+    }
+
+    /**
+     * Saves the passages of a maze to a file, replacing it if it exists.
+     * @param tiles The tiles of the maze.
+     * @param seed The seed from which the maze was built.
+     * @param algorithmType The algorithm that built the maze, or null if it's unknown.
+     * @param path The path of the file.
+     * @throws IOException If the file can't be written.
+     */
+    public static void save(Grid tiles, long seed, AlgorithmType algorithmType, Path path)
+        throws IOException {
+        int columns = tiles.getColumns();
+        byte[] masks = new byte[columns];
+        try (MazeFileWriter writer = new MazeFileWriter(path, columns, tiles.getRows(), seed,
+                                                        algorithmType)) {
+            for (int y = 0; y < tiles.getRows(); y++) {
+                for (int x = 0; x < columns; x++) masks[x] = (byte) tiles.getOpenMask(x, y);
+                writer.accept(masks);
+            }
+        }
+    }
+
+    /**
+     * Opens a saved maze by mapping its file into memory, without reading its body.
+     * @param path The path of the file.
+     * @return The tiles of the saved maze.
+     * @throws IOException If the file can't be read or isn't a valid maze file.
+     */
+    public static MappedGrid open(Path path) throws IOException {
+        return new MappedGrid(path);
+    }
+
+    /**
+     * Returns the number of bytes of the body of a maze.
+     * @param columns The number of columns of the maze.
+     * @param rows The number of rows of the maze.
+     * @return The size of the body, in bytes.
+     */
+    static long getBodySize(int columns, int rows) {
+        return ((long) columns*rows+3)/4;
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.pascualex.mazegenerator.maze.io;
+
+import com.github.pascualex.mazegenerator.maze.algorithms.AlgorithmType;
+import com.github.pascualex.mazegenerator.maze.algorithms.MazeRowSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * This class defines a writer of maze files that receives the maze row by row, so mazes generated
+ * as a stream can be saved without ever being in memory. The body is written through a file channel
+ * as it's packed, and the header is written when the writer is closed, once the checksum is known.
+ * @author Alejandro Pascual
+ */
+public class MazeFileWriter implements MazeRowSink, Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final CRC32 crc;
+
+    private final int columns;
+    private final int rows;
+    private final long seed;
+    private final AlgorithmType algorithmType;
+
+    private int rowsWritten;
+    private int packed;
+    private int packedTiles;
+
+    /**
+     * Instantiates a maze file writer, creating or replacing the file.
+     * @param path The path of the file.
+     * @param columns The number of columns of the maze.
+     * @param rows The number of rows of the maze.
+     * @param seed The seed from which the maze was built.
+     * @param algorithmType The algorithm that built the maze, or null if it's unknown.
+     * @throws IOException If the file can't be opened.
+     */
+    public MazeFileWriter(Path path, int columns, int rows, long seed,
+                          AlgorithmType algorithmType) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                   StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        crc = new CRC32();
+
+        this.columns = columns;
+        this.rows = rows;
+        this.seed = seed;
+        this.algorithmType = algorithmType;
+
+        // Leaves room for the header, which is written when closing
+        channel.position(MazeFile.HEADER_SIZE);
+        rowsWritten = 0;
+        packed = 0;
+        packedTiles = 0;
+    }
+
+    /**
+     * Packs the passages to the right and down of the tiles of the next row into the body.
+     * @param masks The masks of the passages of the tiles of the row.
+     * @throws IOException If the row doesn't match the maze or can't be written.
+     */
+    @Override
+    public void accept(byte[] masks) throws IOException {
+        if (masks.length != columns || rowsWritten == rows) {
+            throw new IOException("The row doesn't fit the dimensions of the maze");
+        }
+
+        for (byte mask : masks) {
+            packed |= (mask >> 1 & 3) << packedTiles*2;
+            if (++packedTiles == 4) flushByte();
+        }
+        rowsWritten++;
+    }
+
+    /**
+     * Writes the last partial byte, the buffer and the header, and closes the file.
+     * @throws IOException If the maze is incomplete or the file can't be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (rowsWritten != rows) throw new IOException("The maze is missing rows");
+
+            if (packedTiles > 0) flushByte();
+            flushBuffer();
+
+            // Writes the header at the start of the file
+            ByteBuffer header = ByteBuffer.allocate(MazeFile.HEADER_SIZE);
+            header.putInt(MazeFile.MAGIC);
+            header.putShort(MazeFile.VERSION);
+            header.put(MazeFile.BITS_PER_TILE);
+            header.put((byte) (algorithmType == null ? -1 : algorithmType.getFileCode()));
+            header.putInt(columns);
+            header.putInt(rows);
+            header.putLong(seed);
+            header.putInt((int) crc.getValue());
+            header.putInt(0);
+            header.flip();
+            while (header.hasRemaining()) channel.write(header, header.position());
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Adds the packed tiles to the buffer as a byte, writing the buffer if it's full.
+     * @throws IOException If the buffer can't be written.
+     */
+    private void flushByte() throws IOException {
+        buffer.put((byte) packed);
+        packed = 0;
+        packedTiles = 0;
+        if (!buffer.hasRemaining()) flushBuffer();
+    }
+
+    /**
+     * Writes the buffer to the file, adding it to the checksum.
+     * @throws IOException If the buffer can't be written.
+     */
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        crc.update(buffer.array(), 0, buffer.limit());
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+}
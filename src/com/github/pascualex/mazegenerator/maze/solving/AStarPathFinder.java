@@ -0,0 +1,176 @@
+package com.github.pascualex.mazegenerator.maze.solving;
+
+import com.github.pascualex.mazegenerator.maze.components.Grid;
+
+/**
+ * This class defines the A* search with the Manhattan distance to the goal as the heuristic. The
+ * open tiles are kept in a binary heap of tile indices that supports decreasing their priority.
+ * @author Alejandro Pascual
+ */
+public class AStarPathFinder extends GridPathFinder {
+    private final int[] heap;
+    private final int[] heapPositions;
+    private final int[] costs;
+    private final int[] estimates;
+    private final byte[] from;
+    private final long[] seen;
+    private final long[] closed;
+    private final int[] touched;
+
+    private int heapSize;
+    private int touchedSize;
+
+    /**
+     * Instantiates an A* search over the given tiles.
+     * @param tiles The tiles of the maze.
+     */
+    public AStarPathFinder(Grid tiles) {
+        super(tiles);
+
+        heap = new int[size];
+        heapPositions = new int[size];
+        costs = new int[size];
+        estimates = new int[size];
+        from = new byte[size];
+        seen = new long[(size+63)/64];
+        closed = new long[(size+63)/64];
+        touched = new int[size];
+    }
+
+    /**
+     * Finds a shortest path between two tiles and stores the indices of its tiles, from the start
+     * to the goal, at the beginning of the given array.
+     * @param start The index of the starting tile.
+     * @param goal The index of the goal tile.
+     * @param path The array where the path is stored, which must fit all the tiles of the maze.
+     * @return The number of tiles of the path, or -1 if the goal can't be reached.
+     */
+    @Override
+    public int findPath(int start, int goal, int[] path) {
+        int goalX = goal%columns;
+        int goalY = goal/columns;
+
+        heapSize = 0;
+        touchedSize = 0;
+        open(start, 0, goalX, goalY);
+
+        // Expands the tile with the lowest estimate until the goal is reached
+        boolean found = false;
+        while (heapSize > 0) {
+            int i = pop();
+            if (i == goal) {
+                found = true;
+                break;
+            }
+            mark(closed, i);
+
+            for (int mask = getOpenMask(i); mask != 0; mask &= mask-1) {
+                int direction = Integer.numberOfTrailingZeros(mask);
+                int j = i+offsets[direction];
+                if (isMarked(closed, j)) continue;
+
+                int cost = costs[i]+1;
+                if (!isMarked(seen, j)) {
+                    from[j] = (byte) direction;
+                    open(j, cost, goalX, goalY);
+                } else if (cost < costs[j]) {
+                    from[j] = (byte) direction;
+                    estimates[j] -= costs[j]-cost;
+                    costs[j] = cost;
+                    siftUp(heapPositions[j]);
+                }
+            }
+        }
+
+        // Clears the marks of all the tiles that were seen
+        for (int k = 0; k < touchedSize; k++) {
+            unmark(seen, touched[k]);
+            unmark(closed, touched[k]);
+        }
+
+        if (!found) return -1;
+        int length = costs[goal]+1;
+        rebuild(from, start, goal, path, length-1);
+        return length;
+    }
+
+    /**
+     * Adds a tile seen for the first time to the heap.
+     * @param i The index of the tile.
+     * @param cost The cost of reaching the tile.
+     * @param goalX The column of the goal.
+     * @param goalY The row of the goal.
+     */
+    private void open(int i, int cost, int goalX, int goalY) {
+        mark(seen, i);
+        touched[touchedSize++] = i;
+        costs[i] = cost;
+        estimates[i] = cost+Math.abs(i%columns-goalX)+Math.abs(i/columns-goalY);
+
+        heap[heapSize] = i;
+        heapPositions[i] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    /**
+     * Removes the tile with the lowest estimate from the heap.
+     * @return The index of the tile.
+     */
+    private int pop() {
+        int top = heap[0];
+        heap[0] = heap[--heapSize];
+        heapPositions[heap[0]] = 0;
+        siftDown(0);
+        return top;
+    }
+
+    /**
+     * Returns if a tile goes before another one in the heap. Ties in the estimate are broken in
+     * favour of the tile with the highest cost, which is the closest to the goal.
+     * @param a The index of the first tile.
+     * @param b The index of the second tile.
+     * @return If the first tile goes before the second one.
+     */
+    private boolean before(int a, int b) {
+        if (estimates[a] != estimates[b]) return estimates[a] < estimates[b];
+        return costs[a] > costs[b];
+    }
+
+    /**
+     * Moves a tile of the heap up until its parent goes before it.
+     * @param k The position of the tile in the heap.
+     */
+    private void siftUp(int k) {
+        int i = heap[k];
+        while (k > 0) {
+            int parent = (k-1) >>> 1;
+            if (!before(i, heap[parent])) break;
+            heap[k] = heap[parent];
+            heapPositions[heap[k]] = k;
+            k = parent;
+        }
+        heap[k] = i;
+        heapPositions[i] = k;
+    }
+
+    /**
+     * Moves a tile of the heap down until it goes before its children.
+     * @param k The position of the tile in the heap.
+     */
+    private void siftDown(int k) {
+        if (heapSize == 0) return;
+
+        int i = heap[k];
+        while (true) {
+            int child = k*2+1;
+            if (child >= heapSize) break;
+            if (child+1 < heapSize && before(heap[child+1], heap[child])) child++;
+            if (!before(heap[child], i)) break;
+            heap[k] = heap[child];
+            heapPositions[heap[k]] = k;
+            k = child;
+        }
+        heap[k] = i;
+        heapPositions[i] = k;
+    }
+}
@@ -0,0 +1,161 @@
+package com.github.pascualex.mazegenerator.maze.solving;
+
+import com.github.pascualex.mazegenerator.maze.components.Grid;
+
+/**
+ * This class defines a bidirectional breadth-first search, which expands one level at a time from
+ * the side with the smallest frontier until both searches meet. The level where they meet is
+ * completed so the shortest of the paths found is kept.
+ * @author Alejandro Pascual
+ */
+public class BidirectionalPathFinder extends GridPathFinder {
+    private final int[] queueA;
+    private final int[] queueB;
+    private final byte[] fromA;
+    private final byte[] fromB;
+    private final int[] distancesA;
+    private final int[] distancesB;
+    private final long[] visitedA;
+    private final long[] visitedB;
+
+    private int headA;
+    private int tailA;
+    private int headB;
+    private int tailB;
+
+    private int bestLength;
+    private int meetA;
+    private int meetB;
+
+    /**
+     * Instantiates a bidirectional breadth-first search over the given tiles.
+     * @param tiles The tiles of the maze.
+     */
+    public BidirectionalPathFinder(Grid tiles) {
+        super(tiles);
+
+        queueA = new int[size];
+        queueB = new int[size];
+        fromA = new byte[size];
+        fromB = new byte[size];
+        distancesA = new int[size];
+        distancesB = new int[size];
+        visitedA = new long[(size+63)/64];
+        visitedB = new long[(size+63)/64];
+    }
+
+    /**
+     * Finds a shortest path between two tiles and stores the indices of its tiles, from the start
+     * to the goal, at the beginning of the given array.
+     * @param start The index of the starting tile.
+     * @param goal The index of the goal tile.
+     * @param path The array where the path is stored, which must fit all the tiles of the maze.
+     * @return The number of tiles of the path, or -1 if the goal can't be reached.
+     */
+    @Override
+    public int findPath(int start, int goal, int[] path) {
+        if (start == goal) {
+            path[0] = start;
+            return 1;
+        }
+
+        // Starts a search from each end
+        headA = 0;
+        tailA = 0;
+        queueA[tailA++] = start;
+        distancesA[start] = 0;
+        mark(visitedA, start);
+        headB = 0;
+        tailB = 0;
+        queueB[tailB++] = goal;
+        distancesB[goal] = 0;
+        mark(visitedB, goal);
+
+        // Expands a level of the smallest frontier until the searches meet
+        bestLength = -1;
+        while (bestLength == -1 && headA < tailA && headB < tailB) {
+            if (tailA-headA <= tailB-headB) expandLevelA();
+            else expandLevelB();
+        }
+
+        // Builds the path from the start to the meeting tiles and from them to the goal
+        if (bestLength != -1) {
+            rebuild(fromA, start, meetA, path, distancesA[meetA]);
+            int k = distancesA[meetA]+1;
+            int i = meetB;
+            path[k++] = i;
+            while (i != goal) {
+                i -= offsets[fromB[i]];
+                path[k++] = i;
+            }
+        }
+
+        // Clears the visited tiles, which are the ones that entered the queues
+        for (int k = 0; k < tailA; k++) unmark(visitedA, queueA[k]);
+        for (int k = 0; k < tailB; k++) unmark(visitedB, queueB[k]);
+
+        return bestLength;
+    }
+
+    /**
+     * Expands all the tiles of the current level of the search from the start.
+     */
+    private void expandLevelA() {
+        int end = tailA;
+        while (headA < end) {
+            int i = queueA[headA++];
+            for (int mask = getOpenMask(i); mask != 0; mask &= mask-1) {
+                int direction = Integer.numberOfTrailingZeros(mask);
+                int j = i+offsets[direction];
+
+                // Checks if the searches meet
+                if (isMarked(visitedB, j)) {
+                    int length = distancesA[i]+distancesB[j]+2;
+                    if (bestLength == -1 || length < bestLength) {
+                        bestLength = length;
+                        meetA = i;
+                        meetB = j;
+                    }
+                    continue;
+                }
+                if (isMarked(visitedA, j)) continue;
+
+                mark(visitedA, j);
+                fromA[j] = (byte) direction;
+                distancesA[j] = distancesA[i]+1;
+                queueA[tailA++] = j;
+            }
+        }
+    }
+
+    /**
+     * Expands all the tiles of the current level of the search from the goal.
+     */
+    private void expandLevelB() {
+        int end = tailB;
+        while (headB < end) {
+            int i = queueB[headB++];
+            for (int mask = getOpenMask(i); mask != 0; mask &= mask-1) {
+                int direction = Integer.numberOfTrailingZeros(mask);
+                int j = i+offsets[direction];
+
+                // Checks if the searches meet
+                if (isMarked(visitedA, j)) {
+                    int length = distancesA[j]+distancesB[i]+2;
+                    if (bestLength == -1 || length < bestLength) {
+                        bestLength = length;
+                        meetA = j;
+                        meetB = i;
+                    }
+                    continue;
+                }
+                if (isMarked(visitedB, j)) continue;
+
+                mark(visitedB, j);
+                fromB[j] = (byte) direction;
+                distancesB[j] = distancesB[i]+1;
+                queueB[tailB++] = j;
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.pascualex.mazegenerator.maze.solving;
+
+import com.github.pascualex.mazegenerator.maze.components.Grid;
+
+/**
+ * This class defines a breadth-first search from the starting tile, which stops as soon as the goal
+ * is reached. It uses an array of tile indices as the queue.
+ * @author Alejandro Pascual
+ */
+public class BreadthFirstPathFinder extends GridPathFinder {
+    private final int[] queue;
+    private final byte[] from;
+    private final long[] visited;
+
+    /**
+     * Instantiates a breadth-first search over the given tiles.
+     * @param tiles The tiles of the maze.
+     */
+    public BreadthFirstPathFinder(Grid tiles) {
+        super(tiles);
+
+        queue = new int[size];
+        from = new byte[size];
+        visited = new long[(size+63)/64];
+    }
+
+    /**
+     * Finds a shortest path between two tiles and stores the indices of its tiles, from the start
+     * to the goal, at the beginning of the given array.
+     * @param start The index of the starting tile.
+     * @param goal The index of the goal tile.
+     * @param path The array where the path is stored, which must fit all the tiles of the maze.
+     * @return The number of tiles of the path, or -1 if the goal can't be reached.
+     */
+    @Override
+    public int findPath(int start, int goal, int[] path) {
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        mark(visited, start);
+
+        // Visits the tiles in order of distance until the goal is reached
+        boolean found = start == goal;
+        while (!found && head < tail) {
+            int i = queue[head++];
+            for (int mask = getOpenMask(i); mask != 0; mask &= mask-1) {
+                int direction = Integer.numberOfTrailingZeros(mask);
+                int j = i+offsets[direction];
+                if (isMarked(visited, j)) continue;
+
+                mark(visited, j);
+                from[j] = (byte) direction;
+                queue[tail++] = j;
+                if (j == goal) {
+                    found = true;
+                    break;
+                }
+            }
+        }
+
+        // Clears the visited tiles, which are the ones that entered the queue
+        for (int k = 0; k < tail; k++) unmark(visited, queue[k]);
+
+        if (!found) return -1;
+        int length = length(from, start, goal);
+        rebuild(from, start, goal, path, length-1);
+        return length;
+    }
+}
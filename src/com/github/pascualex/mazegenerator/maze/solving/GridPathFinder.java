@@ -0,0 +1,104 @@
+package com.github.pascualex.mazegenerator.maze.solving;
+
+import com.github.pascualex.mazegenerator.maze.components.Grid;
+
+/**
+ * This class defines the parts shared by the path finders that work over the tiles of a grid: the
+ * offsets between the indices of neighbour tiles, a visited bitset and the direction from which
+ * each tile was reached, so paths can be rebuilt.
+ * @author Alejandro Pascual
+ */
+abstract class GridPathFinder implements PathFinder {
+    protected final Grid tiles;
+    protected final int columns;
+    protected final int size;
+
+    protected final int[] offsets;
+
+    /**
+     * Instantiates a path finder over the given tiles.
+     * @param tiles The tiles of the maze.
+     */
+    GridPathFinder(Grid tiles) {
+        this.tiles = tiles;
+        columns = tiles.getColumns();
+        size = columns*tiles.getRows();
+
+        // Offsets of the neighbours, in the order of the bits of the passage masks
+        offsets = new int[] {-columns, 1, columns, -1};
+    }
+
+    /**
+     * Returns the passage mask of a tile given its index.
+     * @param i The index of the tile.
+     * @return The passage mask of the tile.
+     */
+    protected int getOpenMask(int i) {
+        return tiles.getOpenMask(i%columns, i/columns);
+    }
+
+    /**
+     * Returns if a tile is marked in a bitset.
+     * @param bits The bitset.
+     * @param i The index of the tile.
+     * @return If the tile is marked.
+     */
+    protected static boolean isMarked(long[] bits, int i) {
+        return (bits[i >>> 6] & 1L << i) != 0;
+    }
+
+    /**
+     * Marks a tile in a bitset.
+     * @param bits The bitset.
+     * @param i The index of the tile.
+     */
+    protected static void mark(long[] bits, int i) {
+        bits[i >>> 6] |= 1L << i;
+    }
+
+    /**
+     * Unmarks a tile in a bitset.
+     * @param bits The bitset.
+     * @param i The index of the tile.
+     */
+    protected static void unmark(long[] bits, int i) {
+        bits[i >>> 6] &= ~(1L << i);
+    }
+
+    /**
+     * Follows the directions from which the tiles were reached, from a tile back to the start,
+     * storing the tiles in the path array in reverse order, ending at the given position.
+     * @param from The directions from which each tile was reached, as bit indices of the masks.
+     * @param start The index of the starting tile.
+     * @param i The index of the last tile of the path.
+     * @param path The array where the path is stored.
+     * @param end The position of the path array where the last tile is stored.
+     * @return The position of the path array where the starting tile was stored.
+     */
+    protected int rebuild(byte[] from, int start, int i, int[] path, int end) {
+        int k = end;
+        path[k] = i;
+        while (i != start) {
+            i -= offsets[from[i]];
+            path[--k] = i;
+        }
+        return k;
+    }
+
+    /**
+     * Returns the length of the path from a tile back to the start, following the directions from
+     * which the tiles were reached.
+     * @param from The directions from which each tile was reached, as bit indices of the masks.
+     * @param start The index of the starting tile.
+     * @param i The index of the last tile of the path.
+     * @return The number of tiles of the path.
+     */
+    protected int length(byte[] from, int start, int i) {
+        int length = 1;
+        while (i != start) {
+            i -= offsets[from[i]];
+            length++;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.pascualex.mazegenerator.maze.solving;
+
+/**
+ * This interface defines an algorithm that finds a shortest path between two tiles of a maze,
+ * following its open passages. Tiles are identified by their index, y*columns+x. The maze may
+ * contain loops. Implementations allocate all their memory when they are created, so queries
+ * don't allocate, and they aren't safe to use from several threads at once.
+ * @author Alejandro Pascual
+ */
+public interface PathFinder {
+
+    /**
+     * Finds a shortest path between two tiles and stores the indices of its tiles, from the start
+     * to the goal, at the beginning of the given array.
+     * @param start The index of the starting tile.
+     * @param goal The index of the goal tile.
+     * @param path The array where the path is stored, which must fit all the tiles of the maze.
+     * @return The number of tiles of the path, or -1 if the goal can't be reached.
+     */
+    int findPath(int start, int goal, int[] path);
+}
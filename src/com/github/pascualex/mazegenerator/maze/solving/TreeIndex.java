@@ -0,0 +1,173 @@
+package com.github.pascualex.mazegenerator.maze.solving;
+
+import com.github.pascualex.mazegenerator.maze.components.Grid;
+
+/**
+ * This class defines an index over a perfect maze, whose passages form a tree, that answers
+ * distance and path queries between any two tiles without searching the maze. Each tile stores its
+ * parent, its depth from the root and a jump pointer to one of its ancestors, chosen so that any
+ * ancestor can be reached in a logarithmic number of jumps. That way, the lowest common ancestor of
+ * two tiles is found in O(log n) time using O(n) memory. Tiles are identified by their index,
+ * y*columns+x.
+ * @author Alejandro Pascual
+ */
+public class TreeIndex {
+    private final int[] parents;
+    private final int[] depths;
+    private final int[] jumps;
+
+    /**
+     * Builds the index of a perfect maze with a breadth-first traversal from the root. The maze
+     * must not change while the index is used, since it isn't updated.
+     * @param tiles The tiles of the maze, whose passages must form a tree.
+     * @param root The index of the root tile, usually the entrance of the maze.
+     * @throws IllegalArgumentException If the passages have a loop or don't reach every tile.
+     */
+    public TreeIndex(Grid tiles, int root) {
+        int columns = tiles.getColumns();
+        int size = columns*tiles.getRows();
+        int[] offsets = {-columns, 1, columns, -1};
+
+        parents = new int[size];
+        depths = new int[size];
+        jumps = new int[size];
+
+        // Traverses the tree, so every tile is processed after its parent
+        boolean[] visited = new boolean[size];
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        visited[root] = true;
+        queue[tail++] = root;
+        parents[root] = -1;
+        depths[root] = 0;
+        jumps[root] = root;
+        while (head < tail) {
+            int i = queue[head++];
+            int mask = tiles.getOpenMask(i%columns, i/columns);
+            for (; mask != 0; mask &= mask-1) {
+                int j = i+offsets[Integer.numberOfTrailingZeros(mask)];
+                if (j == parents[i]) continue;
+
+                // A tile reached through a second passage closes a loop
+                if (visited[j]) {
+                    throw new IllegalArgumentException("The passages of the maze have a loop");
+                }
+                visited[j] = true;
+                parents[j] = i;
+                depths[j] = depths[i]+1;
+                jumps[j] = getJump(i);
+                queue[tail++] = j;
+            }
+        }
+        if (tail < size) {
+            throw new IllegalArgumentException("The passages of the maze don't reach every tile");
+        }
+    }
+
+    /**
+     * Returns the jump pointer of a child of the given tile. If the jump of the tile and the jump of
+     * its jump cover the same distance, the child jumps over both. Otherwise it jumps to the tile.
+     * @param parent The index of the parent of the child.
+     * @return The index of the jump pointer of the child.
+     */
+    private int getJump(int parent) {
+        int jump = jumps[parent];
+        int jumpOfJump = jumps[jump];
+        if (depths[parent]-depths[jump] == depths[jump]-depths[jumpOfJump]) return jumpOfJump;
+        return parent;
+    }
+
+    /**
+     * Returns the depth of a tile, its distance to the root.
+     * @param i The index of the tile.
+     * @return The depth of the tile.
+     */
+    public int getDepth(int i) {
+        return depths[i];
+    }
+
+    /**
+     * Returns the ancestor of a tile at the given depth, which must not be greater than the depth
+     * of the tile.
+     * @param i The index of the tile.
+     * @param depth The depth of the ancestor.
+     * @return The index of the ancestor.
+     */
+    public int getAncestor(int i, int depth) {
+        while (depths[i] > depth) {
+            if (depths[jumps[i]] >= depth) i = jumps[i];
+            else i = parents[i];
+        }
+        return i;
+    }
+
+    /**
+     * Returns the lowest common ancestor of two tiles, the tile where their paths to the root join.
+     * @param a The index of the first tile.
+     * @param b The index of the second tile.
+     * @return The index of the lowest common ancestor.
+     */
+    public int getCommonAncestor(int a, int b) {
+        // Moves both tiles to the same depth
+        if (depths[a] > depths[b]) a = getAncestor(a, depths[b]);
+        else if (depths[b] > depths[a]) b = getAncestor(b, depths[a]);
+
+        // Moves both tiles up, jumping while the jumps don't meet
+        while (a != b) {
+            if (jumps[a] != jumps[b]) {
+                a = jumps[a];
+                b = jumps[b];
+            } else {
+                a = parents[a];
+                b = parents[b];
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Returns the distance between two tiles, the number of passages of the path between them.
+     * @param a The index of the first tile.
+     * @param b The index of the second tile.
+     * @return The distance between the tiles.
+     */
+    public int getDistance(int a, int b) {
+        return depths[a]+depths[b]-2*depths[getCommonAncestor(a, b)];
+    }
+
+    /**
+     * Returns the distances of many pairs of tiles at once.
+     * @param starts The indices of the first tiles of the pairs.
+     * @param goals The indices of the second tiles of the pairs.
+     * @param distances The array where the distance of each pair is stored.
+     */
+    public void getDistances(int[] starts, int[] goals, int[] distances) {
+        for (int k = 0; k < starts.length; k++) {
+            distances[k] = getDistance(starts[k], goals[k]);
+        }
+    }
+
+    /**
+     * Stores the path between two tiles, from the start to the goal, at the beginning of the given
+     * array, in time proportional to the length of the path.
+     * @param start The index of the starting tile.
+     * @param goal The index of the goal tile.
+     * @param path The array where the path is stored, which must fit the path.
+     * @return The number of tiles of the path.
+     */
+    public int findPath(int start, int goal, int[] path) {
+        int ancestor = getCommonAncestor(start, goal);
+        int length = depths[start]+depths[goal]-2*depths[ancestor]+1;
+
+        // Stores the path from the start up to the common ancestor
+        int k = 0;
+        for (int i = start; i != ancestor; i = parents[i]) path[k++] = i;
+        path[k] = ancestor;
+
+        // Stores the path from the goal up to the common ancestor, backwards
+        k = length-1;
+        for (int i = goal; i != ancestor; i = parents[i]) path[k--] = i;
+        return length;
+    }
+}
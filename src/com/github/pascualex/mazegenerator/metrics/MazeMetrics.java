@@ -0,0 +1,257 @@
+package com.github.pascualex.mazegenerator.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This class defines the metrics of the maze app. The maze thread records the steps, the frames,
+ * the state of the maze and the commands, and the event dispatch thread records the paints. Each
+ * metric has a single writer, so they are kept in volatile fields that any thread can read, and
+ * the rates are measured over windows of one second by the maze thread.
+ * @author Alejandro Pascual
+ */
+public class MazeMetrics implements MazeMetricsMXBean {
+    public static final String OBJECT_NAME = "com.github.pascualex.mazegenerator:type=MazeMetrics";
+    private static final long WINDOW_TIME = 1000000000L;
+
+    private final ThreadMXBean threads;
+    private long threadId;
+
+    private volatile long steps;
+    private volatile int tilesGenerated;
+    private volatile int depth;
+    private volatile long framesDropped;
+    private volatile long commandLatency;
+
+    private volatile double stepsPerSecond;
+    private volatile double allocationRate;
+    private long windowStart;
+    private long windowSteps;
+    private long windowAllocated;
+
+    private volatile long lastPaintTime;
+    private volatile long totalPaintTime;
+    private volatile long paints;
+
+    /**
+     * Instantiates the metrics, with every metric at 0.
+     */
+    public MazeMetrics() {
+        threads = ManagementFactory.getThreadMXBean();
+        threadId = -1;
+        windowStart = -1;
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server, so they can be watched through JMX.
+     * @return If the metrics were registered.
+     */
+    public boolean register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(this, new ObjectName(OBJECT_NAME));
+            return true;
+        } catch (JMException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Sets the thread that advances the maze, whose allocations are measured. It must be called
+     * from that thread.
+     */
+    public void recordThread() {
+        threadId = Thread.currentThread().getId();
+    }
+
+    /**
+     * Adds the steps advanced one by one in a frame. It must be called from the maze thread.
+     * @param count The number of steps.
+     */
+    public void recordSteps(long count) {
+        steps += count;
+    }
+
+    /**
+     * Adds the frames dropped because the steps took longer than a whole frame. It must be called
+     * from the maze thread.
+     * @param count The number of frames dropped.
+     */
+    public void recordFramesDropped(long count) {
+        framesDropped += count;
+    }
+
+    /**
+     * Sets the state of the maze. It must be called from the maze thread.
+     * @param tilesGenerated The number of tiles already reached by the algorithm.
+     * @param depth The depth of the search of the algorithm.
+     */
+    public void recordMaze(int tilesGenerated, int depth) {
+        this.tilesGenerated = tilesGenerated;
+        this.depth = depth;
+    }
+
+    /**
+     * Sets the latency of the last applied command. It must be called from the maze thread.
+     * @param commandLatency The latency of the command, in nanoseconds.
+     */
+    public void recordCommandLatency(long commandLatency) {
+        this.commandLatency = commandLatency;
+    }
+
+    /**
+     * Adds a paint of the maze view. It must be called from the event dispatch thread.
+     * @param paintTime The time the paint took, in nanoseconds.
+     */
+    public void recordPaint(long paintTime) {
+        lastPaintTime = paintTime;
+        totalPaintTime += paintTime;
+        paints++;
+    }
+
+    /**
+     * Updates the rates if the current window is over, starting a new one. It must be called from
+     * the maze thread while it runs.
+     */
+    public void sample() {
+        long now = System.nanoTime();
+        if (windowStart == -1) {
+            startWindow(now);
+            return;
+        }
+
+        long elapsed = now-windowStart;
+        if (elapsed < WINDOW_TIME) return;
+
+        stepsPerSecond = (steps-windowSteps)*1e9/elapsed;
+        long allocated = getAllocatedBytes();
+        allocationRate = allocated >= 0 ? (allocated-windowAllocated)*1e9/elapsed : 0;
+        startWindow(now);
+    }
+
+    /**
+     * Sets the rates to 0 and discards the current window, since the maze stopped running. It must
+     * be called from the maze thread.
+     */
+    public void sampleIdle() {
+        stepsPerSecond = 0;
+        allocationRate = 0;
+        windowStart = -1;
+    }
+
+    /**
+     * Starts a new window at the given moment.
+     * @param now The moment the window starts.
+     */
+    private void startWindow(long now) {
+        windowStart = now;
+        windowSteps = steps;
+        windowAllocated = getAllocatedBytes();
+    }
+
+    /**
+     * Returns the number of bytes allocated by the maze thread since it started.
+     * @return The number of bytes allocated, or -1 if the virtual machine can't measure it.
+     */
+    private long getAllocatedBytes() {
+        if (threadId == -1 || !(threads instanceof com.sun.management.ThreadMXBean)) return -1;
+
+        return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(threadId);
+    }
+
+    /**
+     * Returns the number of steps advanced per second during the last second the maze ran.
+     * @return The steps per second, or 0 if the maze isn't running.
+     */
+    @Override
+    public double getStepsPerSecond() {
+        return stepsPerSecond;
+    }
+
+    /**
+     * Returns the number of steps advanced one by one.
+     * @return The number of steps.
+     */
+    @Override
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Returns the number of tiles of the current maze already reached by its algorithm.
+     * @return The number of tiles generated.
+     */
+    @Override
+    public int getTilesGenerated() {
+        return tilesGenerated;
+    }
+
+    /**
+     * Returns the depth of the search of the current algorithm.
+     * @return The depth of the search, or 0 if the algorithm has no depth.
+     */
+    @Override
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the time the last paint of the maze view took.
+     * @return The time of the last paint, in nanoseconds.
+     */
+    @Override
+    public long getLastPaintTime() {
+        return lastPaintTime;
+    }
+
+    /**
+     * Returns the mean time the paints of the maze view took.
+     * @return The mean time of the paints, in nanoseconds, or 0 if there were no paints.
+     */
+    @Override
+    public long getMeanPaintTime() {
+        long count = paints;
+        return count > 0 ? totalPaintTime/count : 0;
+    }
+
+    /**
+     * Returns the number of paints of the maze view.
+     * @return The number of paints.
+     */
+    @Override
+    public long getPaints() {
+        return paints;
+    }
+
+    /**
+     * Returns the number of frames dropped because the steps took longer than a whole frame.
+     * @return The number of frames dropped.
+     */
+    @Override
+    public long getFramesDropped() {
+        return framesDropped;
+    }
+
+    /**
+     * Returns the number of bytes allocated per second by the maze thread during the last second
+     * the maze ran.
+     * @return The allocation rate, in bytes per second.
+     */
+    @Override
+    public double getAllocationRate() {
+        return allocationRate;
+    }
+
+    /**
+     * Returns the time between the creation of the last applied command and its application.
+     * @return The latency of the last command, in nanoseconds.
+     */
+    @Override
+    public long getCommandLatency() {
+        return commandLatency;
+    }
+}
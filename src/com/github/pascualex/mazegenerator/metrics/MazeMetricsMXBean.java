@@ -0,0 +1,72 @@
+package com.github.pascualex.mazegenerator.metrics;
+
+/**
+ * This interface defines the metrics of the maze app that are exposed through JMX, so they can be
+ * watched with any JMX console while the maze is built. All the times are in nanoseconds.
+ * @author Alejandro Pascual
+ */
+public interface MazeMetricsMXBean {
+
+    /**
+     * Returns the number of steps advanced per second during the last second the maze ran.
+     * @return The steps per second, or 0 if the maze isn't running.
+     */
+    double getStepsPerSecond();
+
+    /**
+     * Returns the number of steps advanced one by one since the metrics were created.
+     * @return The number of steps.
+     */
+    long getSteps();
+
+    /**
+     * Returns the number of tiles of the current maze already reached by its algorithm.
+     * @return The number of tiles generated.
+     */
+    int getTilesGenerated();
+
+    /**
+     * Returns the depth of the search of the current algorithm, if it builds the maze as a
+     * depth-first search.
+     * @return The depth of the search, or 0 if the algorithm has no depth.
+     */
+    int getDepth();
+
+    /**
+     * Returns the time the last paint of the maze view took.
+     * @return The time of the last paint.
+     */
+    long getLastPaintTime();
+
+    /**
+     * Returns the mean time the paints of the maze view took.
+     * @return The mean time of the paints, or 0 if there were no paints.
+     */
+    long getMeanPaintTime();
+
+    /**
+     * Returns the number of paints of the maze view since the metrics were created.
+     * @return The number of paints.
+     */
+    long getPaints();
+
+    /**
+     * Returns the number of frames dropped because the steps took longer than a whole frame.
+     * @return The number of frames dropped.
+     */
+    long getFramesDropped();
+
+    /**
+     * Returns the number of bytes allocated per second by the maze thread during the last second
+     * the maze ran.
+     * @return The allocation rate, in bytes per second, or 0 if the maze isn't running or the
+     *         virtual machine can't measure it.
+     */
+    double getAllocationRate();
+
+    /**
+     * Returns the time between the creation of the last applied command and its application.
+     * @return The latency of the last command.
+     */
+    long getCommandLatency();
+}